@@ -0,0 +1,128 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// Access to the game classes, which live in the default package: code in a named package cannot import them,
+// and JMH does not accept benchmarks in the default package. Static final method handles are constants to the
+// JIT, so calls through them are inlined like direct calls and do not distort the measurements.
+final class Engine {
+    // Reference positions (black, white) with black to move, two each at 48, 36, 24 and 12 empty squares
+    static final long[][] POSITIONS = {
+            {0x00040c3c00004000L, 0x0000000038780800L},
+            {0x00001c0840a04000L, 0x0000007038102000L},
+            {0x00002c27201a2040L, 0x1818501818640600L},
+            {0x048c443617061000L, 0x00000a0828180c0aL},
+            {0x2c0c0823222e0c04L, 0x4162341cdc103070L},
+            {0x0f142c4c28180880L, 0x10a0d0b3d4e0f000L},
+            {0x19cbd7cac5d04c7cL, 0x20342834382f3000L},
+            {0x008048d4fbb8d6feL, 0xa466342a04472901L}
+    };
+
+    static final MethodHandle GET_MOVES; // BitBoard.getMoves(long player, long opponent) -> long
+    static final MethodHandle GET_FLIPS; // BitBoard.getFlips(int square, long player, long opponent) -> long
+    static final MethodHandle NEW_BOARD; // new Board() -> Object
+    static final MethodHandle GET_BIT_BOARD; // Board.getBitBoard() -> Object
+    static final MethodHandle SET_POSITION; // BitBoard.setPosition(long black, long white)
+    static final MethodHandle IS_VALID_MOVE; // Board.isValidMove(int row, int col, boolean isBlackTurn) -> boolean
+    static final MethodHandle GET_VALID_MOVES; // Board.getValidMoves(boolean isBlackTurn) -> List
+    static final MethodHandle MAKE_MOVE; // Board.makeMove(int row, int col, boolean isBlackTurn) -> long
+    static final MethodHandle UNDO_MOVE; // Board.undoMove(int row, int col, long flips, boolean isBlackTurn)
+    static final MethodHandle NEW_AI; // new AI(AIDifficulty) -> Object
+    static final MethodHandle SET_TIME_LIMIT; // AI.setTimeLimit(long milliseconds)
+    static final MethodHandle EVALUATE_BOARD; // AI.evaluateBoard(BitBoard, boolean isBlackTurn) -> int
+    static final MethodHandle NEW_TABLE; // new TranspositionTable(int megabytes, ReplacementPolicy) -> Object
+    static final MethodHandle CLEAR_TABLE; // TranspositionTable.clear()
+    static final MethodHandle NEW_SEARCHER; // new Searcher(AI, TranspositionTable) -> Object
+    static final MethodHandle ITERATE; // Searcher.iterate(BitBoard, boolean, int startDepth, int maxDepth) -> List
+    private static final Class<?> DIFFICULTY; // AIDifficulty
+    private static final Class<?> POLICY; // ReplacementPolicy
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> bitBoard = Class.forName("BitBoard");
+            Class<?> board = Class.forName("Board");
+            Class<?> ai = Class.forName("AI");
+            Class<?> table = Class.forName("TranspositionTable");
+            Class<?> searcher = Class.forName("Searcher");
+            DIFFICULTY = Class.forName("AIDifficulty");
+            POLICY = Class.forName("ReplacementPolicy");
+            MethodHandles.Lookup aiLookup = MethodHandles.privateLookupIn(ai, lookup); // evaluateBoard is package-private
+
+            GET_MOVES = lookup.findStatic(bitBoard, "getMoves", MethodType.methodType(long.class, long.class, long.class));
+            GET_FLIPS = lookup.findStatic(bitBoard, "getFlips", MethodType.methodType(long.class, int.class, long.class, long.class));
+            NEW_BOARD = generic(lookup.findConstructor(board, MethodType.methodType(void.class)));
+            GET_BIT_BOARD = generic(lookup.findVirtual(board, "getBitBoard", MethodType.methodType(bitBoard)));
+            SET_POSITION = generic(lookup.findVirtual(bitBoard, "setPosition", MethodType.methodType(void.class, long.class, long.class)));
+            IS_VALID_MOVE = generic(lookup.findVirtual(board, "isValidMove",
+                    MethodType.methodType(boolean.class, int.class, int.class, boolean.class)));
+            GET_VALID_MOVES = generic(lookup.findVirtual(board, "getValidMoves",
+                    MethodType.methodType(java.util.List.class, boolean.class)));
+            MAKE_MOVE = generic(lookup.findVirtual(board, "makeMove",
+                    MethodType.methodType(long.class, int.class, int.class, boolean.class)));
+            UNDO_MOVE = generic(lookup.findVirtual(board, "undoMove",
+                    MethodType.methodType(void.class, int.class, int.class, long.class, boolean.class)));
+            NEW_AI = generic(lookup.findConstructor(ai, MethodType.methodType(void.class, DIFFICULTY)));
+            SET_TIME_LIMIT = generic(lookup.findVirtual(ai, "setTimeLimit", MethodType.methodType(void.class, long.class)));
+            EVALUATE_BOARD = generic(aiLookup.findVirtual(ai, "evaluateBoard",
+                    MethodType.methodType(int.class, bitBoard, boolean.class)));
+            NEW_TABLE = generic(lookup.findConstructor(table, MethodType.methodType(void.class, int.class, POLICY)));
+            CLEAR_TABLE = generic(lookup.findVirtual(table, "clear", MethodType.methodType(void.class)));
+            NEW_SEARCHER = generic(lookup.findConstructor(searcher, MethodType.methodType(void.class, ai, table)));
+            ITERATE = generic(lookup.findVirtual(searcher, "iterate",
+                    MethodType.methodType(java.util.List.class, bitBoard, boolean.class, int.class, int.class)));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Engine() {
+    }
+
+    // Replace game class types in a handle's signature with Object, so the benchmarks can call it with invokeExact
+    private static MethodHandle generic(MethodHandle handle) {
+        MethodType type = handle.type();
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (!type.parameterType(i).isPrimitive()) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+        if (!type.returnType().isPrimitive()) {
+            type = type.changeReturnType(Object.class);
+        }
+        return handle.asType(type);
+    }
+
+    // Create a Board holding a reference position
+    static Object board(long[] position) throws Throwable {
+        Object board = (Object) NEW_BOARD.invokeExact();
+        Object bits = (Object) GET_BIT_BOARD.invokeExact(board);
+        SET_POSITION.invokeExact(bits, position[0], position[1]);
+        return board;
+    }
+
+    // Create an AI of the given difficulty (by name) that searches without a time limit
+    static Object ai(String difficulty) throws Throwable {
+        Object level = enumConstant(DIFFICULTY, difficulty);
+        Object ai = (Object) NEW_AI.invokeExact(level);
+        SET_TIME_LIMIT.invokeExact(ai, 0L);
+        return ai;
+    }
+
+    // Create a transposition table with depth-preferred replacement
+    static Object table(int megabytes) throws Throwable {
+        return (Object) NEW_TABLE.invokeExact(megabytes, enumConstant(POLICY, "DEPTH_PREFERRED"));
+    }
+
+    // Look up an enum constant of a game enum by name
+    private static Object enumConstant(Class<?> type, String name) {
+        for (Object constant : type.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(name)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException(type.getSimpleName() + " has no constant " + name);
+    }
+}
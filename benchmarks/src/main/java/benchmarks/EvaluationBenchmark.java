@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Leaf evaluation of each difficulty on the reference positions, per position
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+    @Param({"EASY", "MEDIUM", "HARD", "EXPERT", "PATTERN"})
+    public String difficulty; // AIDifficulty constant
+
+    private Object ai; // AI of the difficulty
+    private Object[] bitBoards; // BitBoard of each reference position
+
+    @Setup
+    public void setup() throws Throwable {
+        ai = Engine.ai(difficulty);
+        bitBoards = new Object[Engine.POSITIONS.length];
+        for (int i = 0; i < Engine.POSITIONS.length; i++) {
+            bitBoards[i] = (Object) Engine.GET_BIT_BOARD.invokeExact(Engine.board(Engine.POSITIONS[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public int evaluate() throws Throwable {
+        int sum = 0;
+        for (Object bitBoard : bitBoards) {
+            sum += (int) Engine.EVALUATE_BOARD.invokeExact(ai, bitBoard, true);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Flip computation and make/undo of every legal move of the reference positions, per move
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class MakeMoveBenchmark {
+    private static final int MOVES = 77; // Legal moves over all reference positions
+
+    private long[] black; // Black discs of the position of each move
+    private long[] white; // White discs of the position of each move
+    private int[] squares; // Square of each move
+    private Object[] boards; // Board of the position of each move
+
+    @Setup
+    public void setup() throws Throwable {
+        black = new long[MOVES];
+        white = new long[MOVES];
+        squares = new int[MOVES];
+        boards = new Object[MOVES];
+        int count = 0;
+        for (long[] position : Engine.POSITIONS) {
+            Object board = Engine.board(position);
+            long moves = (long) Engine.GET_MOVES.invokeExact(position[0], position[1]);
+            for (; moves != 0; moves &= moves - 1) {
+                black[count] = position[0];
+                white[count] = position[1];
+                squares[count] = Long.numberOfTrailingZeros(moves);
+                boards[count] = board;
+                count++;
+            }
+        }
+        if (count != MOVES) {
+            throw new IllegalStateException("Reference positions have " + count + " moves, expected " + MOVES);
+        }
+    }
+
+    // Flipped discs of a move from the bitboards, as used by the search
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public long bitBoardFlips() throws Throwable {
+        long sum = 0;
+        for (int i = 0; i < MOVES; i++) {
+            sum += (long) Engine.GET_FLIPS.invokeExact(squares[i], black[i], white[i]);
+        }
+        return sum;
+    }
+
+    // Make a move on a Board and take it back
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public long boardMakeUndo() throws Throwable {
+        long sum = 0;
+        for (int i = 0; i < MOVES; i++) {
+            int row = squares[i] / 8;
+            int col = squares[i] % 8;
+            long flips = (long) Engine.MAKE_MOVE.invokeExact(boards[i], row, col, true);
+            Engine.UNDO_MOVE.invokeExact(boards[i], row, col, flips, true);
+            sum += flips;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Move generation on the reference positions, per position
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+    private long[] black; // Black discs of each reference position
+    private long[] white; // White discs of each reference position
+    private Object[] boards; // A Board holding each reference position
+
+    @Setup
+    public void setup() throws Throwable {
+        black = new long[Engine.POSITIONS.length];
+        white = new long[Engine.POSITIONS.length];
+        boards = new Object[Engine.POSITIONS.length];
+        for (int i = 0; i < Engine.POSITIONS.length; i++) {
+            black[i] = Engine.POSITIONS[i][0];
+            white[i] = Engine.POSITIONS[i][1];
+            boards[i] = Engine.board(Engine.POSITIONS[i]);
+        }
+    }
+
+    // Legal move mask from the bitboards, as used by the search
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public long bitBoardMoves() throws Throwable {
+        long sum = 0;
+        for (int i = 0; i < black.length; i++) {
+            sum += (long) Engine.GET_MOVES.invokeExact(black[i], white[i]);
+        }
+        return sum;
+    }
+
+    // Legal moves as a list, as used by the UI and the root of the search
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public int boardValidMoves() throws Throwable {
+        int count = 0;
+        for (Object board : boards) {
+            count += ((List<?>) (Object) Engine.GET_VALID_MOVES.invokeExact(board, true)).size();
+        }
+        return count;
+    }
+
+    // Legality of every square, as checked for each click and hover in the UI
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public int boardIsValidMove() throws Throwable {
+        int count = 0;
+        for (Object board : boards) {
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    if ((boolean) Engine.IS_VALID_MOVE.invokeExact(board, row, col, true)) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Fixed-depth iterative deepening search of one reference position from an empty transposition table
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class SearchBenchmark {
+    private static final int TABLE_MEGABYTES = 16; // Transposition table size, large enough to hold these searches
+
+    @Param({"EXPERT", "PATTERN"})
+    public String difficulty; // AIDifficulty constant
+
+    @Param({"0", "2", "4", "6"})
+    public int position; // Index into Engine.POSITIONS (48, 36, 24 and 12 empty squares)
+
+    @Param({"6"})
+    public int depth; // Search depth in plies
+
+    private Object table; // Transposition table, cleared before each search
+    private Object searcher; // Searcher of the difficulty
+    private Object bitBoard; // The position searched
+
+    @Setup
+    public void setup() throws Throwable {
+        table = Engine.table(TABLE_MEGABYTES);
+        searcher = (Object) Engine.NEW_SEARCHER.invokeExact(Engine.ai(difficulty), table);
+        bitBoard = (Object) Engine.GET_BIT_BOARD.invokeExact(Engine.board(Engine.POSITIONS[position]));
+    }
+
+    @Benchmark
+    public Object search() throws Throwable {
+        Engine.CLEAR_TABLE.invokeExact(table);
+        return (Object) Engine.ITERATE.invokeExact(searcher, bitBoard, true, 1, depth);
+    }
+}
@@ -1,251 +1,393 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
-public class AI {
+public final class AI {
+    public static final int TT_MEGABYTES = 16; // Default memory budget of the transposition table
+    public static final long DEFAULT_TIME_LIMIT_MS = 5000; // Default wall-clock budget per move
+    public static final int DEFAULT_EXACT_SOLVER_EMPTIES = 16; // Empty squares from which the exact endgame is solved
+    public static final int DEFAULT_WLD_SOLVER_EMPTIES = 20; // Empty squares from which win/loss/draw is solved
+    private static final int FULL_DEPTH_EMPTIES = 13; // getSearchDepth searches to the end from this many empty squares
     public AIDifficulty difficulty; // Difficulty level of the AI
-    private final GameEngine gameEngine; // Reference to the game engine
 
-    private final WeightType weights = new WeightType(1, 2, 1, 1); // Weights for different evaluation factors
+    public static final WeightType DEFAULT_WEIGHTS = new WeightType(1, 2, 1, 1); // Built-in weights, used when no tuned weights file exists
+    private final WeightType weights; // Weights for different evaluation factors
+    private long timeLimitMillis = DEFAULT_TIME_LIMIT_MS; // Wall-clock budget per move (0 for no limit)
+    private long nodeLimit = 0; // Node budget per move (0 for no limit)
+    private long searchStartTime; // Time the current search started (System.nanoTime)
+    private long searchTimeLimit; // Time left for the heuristic search of the current move
+    private volatile boolean stopRequested; // Tells helper threads that the main search has finished
+    private volatile boolean pondering; // Set while searching on the opponent's time: the time limit does not apply
+    private int completedDepth; // Deepest completed iteration of the current search
+    private SearchStats lastStats; // Statistics of the last move (null before the first)
+    private SearchStats.Source lastSource; // Where the move being chosen comes from
+    private boolean solverUsed; // Set when the endgame solver ran for the move being chosen
+    private boolean searchUsed; // Set when the heuristic search ran for the move being chosen
+    private int threads = 1; // Number of threads searching each move
+    private ExecutorService executor = ForkJoinPool.commonPool(); // Runs the helper searches
+    private Searcher[] searchers; // Per-thread search state, the first one is the main searcher
+    private EndgameSolver endgameSolver; // Perfect-play search for the last empty squares
+    private int exactSolverEmpties = DEFAULT_EXACT_SOLVER_EMPTIES; // Empty squares from which the exact score is solved
+    private int winLossDrawSolverEmpties = DEFAULT_WLD_SOLVER_EMPTIES; // Empty squares from which win/loss/draw is solved
+    private long solverDeadline; // Time the endgame solver must stop (System.nanoTime)
+    private PatternEvaluator patternEvaluator; // Lookup-table evaluation used at the PATTERN level
+    private OpeningBook openingBook = OpeningBook.startupBook(); // Book moves for known positions (null for none)
+    private TranspositionTable transpositionTable; // Results of earlier searches, shared by all threads
+    private ProbCut probCut; // Forward-pruning parameters (null for a full-width search)
 
-    // Constructor to initialize AI with difficulty and game engine
-    public AI(AIDifficulty difficulty, GameEngine gameEngine) {
-        this.difficulty = difficulty;
-        this.gameEngine = gameEngine;
+    // Constructor to initialize AI with difficulty
+    public AI(AIDifficulty difficulty) {
+        this(difficulty, WeightsFile.startupWeights(difficulty));
     }
 
-    // Method to find the best move for the current board state
-    public Move findBestMove(Board board, boolean isBlackTurn) {
-        int depth = getSearchDepth(); // Determine the search depth based on the game phase
-        List<Move> validMoves = board.getValidMoves(isBlackTurn); // Get all valid moves for the current player
+    // Constructor for an AI with a transposition table of its own size (many small AIs in one process)
+    public AI(AIDifficulty difficulty, TranspositionTable transpositionTable) {
+        this(difficulty, WeightsFile.startupWeights(difficulty), transpositionTable);
+    }
 
-        if (validMoves.isEmpty()) {
-            return null; // No valid moves available
+    // Constructor for an AI with its own evaluation weights
+    public AI(AIDifficulty difficulty, WeightType weights) {
+        this(difficulty, weights, new TranspositionTable(TT_MEGABYTES, ReplacementPolicy.DEPTH_PREFERRED));
+    }
+
+    // Constructor for an AI with its own evaluation weights and transposition table
+    public AI(AIDifficulty difficulty, WeightType weights, TranspositionTable transpositionTable) {
+        this.difficulty = difficulty;
+        this.weights = weights;
+        this.transpositionTable = transpositionTable;
+        if (difficulty == AIDifficulty.PATTERN) {
+            this.patternEvaluator = WeightsFile.startupPatterns();
         }
+        this.probCut = ProbCut.startupParameters(difficulty);
+        createSearchers();
+    }
 
-        List<Move> bestMoves = new ArrayList<>(); // List to store the best moves
-        int bestScore = isBlackTurn ? Integer.MIN_VALUE : Integer.MAX_VALUE; // Initialize best score based on player
+    // Create the per-thread searchers sharing the transposition table
+    private void createSearchers() {
+        searchers = new Searcher[threads];
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new Searcher(this, transpositionTable);
+        }
+        endgameSolver = new EndgameSolver(this, transpositionTable);
+    }
 
-        // Evaluate each valid move
-        for (Move move : validMoves) {
-            Board newBoard = new Board(board); // Create a new board state
-            newBoard.makeMove(move.row, move.col, isBlackTurn); // Make the move on the new board
-            int score = minimax(newBoard, depth - 1, !isBlackTurn, Integer.MIN_VALUE, Integer.MAX_VALUE); // Get the score using minimax
+    // Replace the transposition table (for a different memory budget or replacement policy)
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+        createSearchers();
+    }
 
-            // Update the best move based on the score
-            if (isBlackTurn) {
-                if (score > bestScore) {
-                    bestScore = score;
-                    bestMoves.clear();
-                    bestMoves.add(move);
-                } else if (score == bestScore) {
-                    bestMoves.add(move);
-                }
-            } else {
-                if (score < bestScore) {
-                    bestScore = score;
-                    bestMoves.clear();
-                    bestMoves.add(move);
-                } else if (score == bestScore) {
-                    bestMoves.add(move);
-                }
-            }
-        }
+    // Set the number of threads searching each move (1 for the serial search)
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+        createSearchers();
+    }
 
-        // Randomly select one of the best moves if there are multiple
-        if (!bestMoves.isEmpty()) {
-            Random random = new Random();
-            return bestMoves.get(random.nextInt(bestMoves.size()));
-        }
+    // Set the executor that runs the helper threads of a parallel search
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
 
-        return null;
+    // Set the wall-clock budget per move in milliseconds (0 for no limit)
+    public void setTimeLimit(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
     }
 
-    // Minimax algorithm with alpha-beta pruning to evaluate moves
-    private int minimax(Board board, int depth, boolean isMaximizingPlayer, int alpha, int beta) {
-        gameEngine.searchedNodes++; // Increment the number of nodes searched
-        if (depth == 0 || board.isGameOver()) {
-            return evaluateBoard(board.getState(), isMaximizingPlayer); // Evaluate the board if depth is 0 or game is over
-        }
+    // Set the maximum number of nodes per move (0 for no limit)
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
 
-        if (isMaximizingPlayer) {
-            int bestValue = Integer.MIN_VALUE;
-            for (Move move : board.getValidMoves(isMaximizingPlayer)) {
-                Board newBoard = new Board(board);
-                newBoard.makeMove(move.row, move.col, isMaximizingPlayer);
-                int value = minimax(newBoard, depth - 1, false, alpha, beta); // Recursively call minimax for minimizing player
-                bestValue = Math.max(bestValue, value);
-                alpha = Math.max(alpha, bestValue);
-                if (beta <= alpha) {
-                    break; // Alpha-beta pruning
-                }
-            }
-            return bestValue;
-        } else {
-            int bestValue = Integer.MAX_VALUE;
-            for (Move move : board.getValidMoves(isMaximizingPlayer)) {
-                Board newBoard = new Board(board);
-                newBoard.makeMove(move.row, move.col, isMaximizingPlayer);
-                int value = minimax(newBoard, depth - 1, true, alpha, beta); // Recursively call minimax for maximizing player
-                bestValue = Math.min(bestValue, value);
-                beta = Math.min(beta, bestValue);
-                if (beta <= alpha) {
-                    break; // Alpha-beta pruning
-                }
-            }
-            return bestValue;
-        }
+    // Get the deepest search depth completed for the last move
+    public int getCompletedDepth() {
+        return completedDepth;
     }
 
-    // Evaluate the board based on the difficulty level
-    private int evaluateBoard(int[][] boardState, boolean isBlackTurn) {
-        int evaluation = switch (difficulty) {
-            case EASY -> evaluateBoardEasy(boardState);
-            case MEDIUM -> evaluateBoardMedium(boardState);
-            case HARD -> evaluateBoardHard(boardState);
-            case EXPERT -> evaluateBoardExpert(boardState);
-        };
-        if (!isBlackTurn) {
-            evaluation = -evaluation; // Invert evaluation for white player
-        }
+    // Get the time in milliseconds the main thread needed to complete its deepest iteration for the last move
+    public long getTimeToDepthMillis() {
+        return searchers[0].completedTime / 1_000_000;
+    }
 
-        return evaluation;
+    // Get the number of nodes searched by all threads for the last move
+    public long getLastSearchNodes() {
+        return lastStats != null ? lastStats.nodes() : 0;
     }
 
-    // Evaluate the board for easy difficulty (only piece differential)
-    private int evaluateBoardEasy(int[][] board) {
-        return getPieceDifferentialScore(board);
+    // Get the statistics of the last move (null before the first)
+    public SearchStats getLastStats() {
+        return lastStats;
     }
 
-    // Evaluate the board for medium difficulty (piece differential and mobility)
-    private int evaluateBoardMedium(int[][] board) {
-        return getPieceDifferentialScore(board) + getMobilityScore(board);
+    // Set how many empty squares the endgame solver handles exactly and with a win/loss/draw search
+    public void setSolverEmpties(int exactEmpties, int winLossDrawEmpties) {
+        this.exactSolverEmpties = exactEmpties;
+        this.winLossDrawSolverEmpties = Math.max(exactEmpties, winLossDrawEmpties);
     }
 
-    // Evaluate the board for hard difficulty (piece differential, mobility, and corners)
-    private int evaluateBoardHard(int[][] board) {
-        return getPieceDifferentialScore(board) + getMobilityScore(board) + getCornerScore(board);
+    // Replace the opening book (null to always search)
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
     }
 
-    // Evaluate the board for expert difficulty (piece differential, mobility, corners, and stability)
-    private int evaluateBoardExpert(int[][] board) {
-        return getPieceDifferentialScore(board) + getMobilityScore(board) + getCornerScore(board) + getStabilityScore(board);
+    // Replace the Multi-ProbCut parameters (null for a full-width search)
+    public void setProbCut(ProbCut probCut) {
+        this.probCut = probCut;
     }
 
-    // Calculate the piece differential score (difference in number of pieces)
-    private int getPieceDifferentialScore(int[][] board) {
-        int blackPieces = countPieces(board, 1);
-        int whitePieces = countPieces(board, 2);
-        return (blackPieces - whitePieces) * weights.PieceDifferential;
+    // Multi-ProbCut parameters of the search (null for a full-width search)
+    ProbCut getProbCut() {
+        return probCut;
     }
 
-    // Calculate the mobility score (difference in number of valid moves)
-    private int getMobilityScore(int[][] board) {
-        int blackMoves = getValidMoves(board, true).size();
-        int whiteMoves = getValidMoves(board, false).size();
-        return (blackMoves - whiteMoves) * weights.Mobility;
+    // Replace the pattern tables used at the PATTERN level
+    public void setPatternEvaluator(PatternEvaluator patternEvaluator) {
+        this.patternEvaluator = patternEvaluator;
     }
 
-    // Calculate the corner score (difference in number of corner pieces)
-    private int getCornerScore(int[][] board) {
-        int blackCorners = countCorners(board, 1);
-        int whiteCorners = countCorners(board, 2);
-        return (blackCorners - whiteCorners) * weights.Corner;
+    // Method to find the best move for the current board state (interrupting the calling thread cancels the search)
+    public synchronized Move findBestMove(Board board, boolean isBlackTurn) {
+        pondering = false; // A ponder that was cancelled before it started must not leave the time limit off
+        return searchMove(board, isBlackTurn);
     }
 
-    // Calculate the stability score (difference in number of stable pieces)
-    private int getStabilityScore(int[][] board) {
-        int stabilityBlack = countStablePieces(board, 1);
-        int stabilityWhite = countStablePieces(board, 2);
-        return (stabilityBlack - stabilityWhite) * weights.Stability;
+    // Search a position on the opponent's time, after startPondering: the search runs without a time limit until
+    // ponderHit turns the limit back on (counting the time already spent) or the calling thread is interrupted
+    public synchronized Move ponder(Board board, boolean isBlackTurn) {
+        try {
+            return searchMove(board, isBlackTurn);
+        } finally {
+            pondering = false;
+        }
     }
 
-    // Count the total number of pieces on the board
-    private int countTotalPieces(int[][] boardState) {
-        int count = 0;
-        for (int i = 0; i < Board.BOARD_SIZE; i++) {
-            for (int j = 0; j < Board.BOARD_SIZE; j++) {
-                if (boardState[i][j] != 0) {
-                    count++;
-                }
-            }
+    // Switch off the time limit for the next ponder call (called before it is submitted, so a hit can never come first)
+    public void startPondering() {
+        pondering = true;
+    }
+
+    // The opponent played the pondered move: the ponder search becomes the real search and stops within the time limit
+    public void ponderHit() {
+        pondering = false;
+    }
+
+    // The reply the search expects from the side to move: the best move stored for the position, or null if none is
+    public Move predictMove(Board board, boolean isBlackTurn) {
+        BitBoard position = board.getBitBoard();
+        int symmetry = TranspositionTable.symmetryOf(position);
+        long entry = transpositionTable.probe(position.symmetricKey(symmetry, isBlackTurn));
+        int square = entry != 0 ? TranspositionTable.bestMove(entry) : TranspositionTable.NO_MOVE;
+        if (square != TranspositionTable.NO_MOVE) {
+            square = BitBoard.transformSquare(square, BitBoard.inverseSymmetry(symmetry));
+        }
+        if (square == TranspositionTable.NO_MOVE || !position.isValidMove(square, isBlackTurn)) {
+            return null; // Nothing stored, or a key collision
         }
-        return count;
+        return new Move(square / Board.BOARD_SIZE, square % Board.BOARD_SIZE);
     }
 
-    // Count the number of pieces of a specific color
-    private int countPieces(int[][] boardState, int color) {
-        int count = 0;
-        for (int i = 0; i < Board.BOARD_SIZE; i++) {
-            for (int j = 0; j < Board.BOARD_SIZE; j++) {
-                if (boardState[i][j] == color) {
-                    count++;
-                }
+    // Search for a move and record its statistics (a cancelled search is not counted as a move)
+    private Move searchMove(Board board, boolean isBlackTurn) {
+        BitBoard position = new BitBoard(board.getBitBoard()); // Snapshot shared read-only by all searchers
+        if (position.getMoves(isBlackTurn) == 0) {
+            return null; // No valid moves available
+        }
+        long start = System.nanoTime();
+        lastSource = SearchStats.Source.SEARCH;
+        solverUsed = false;
+        searchUsed = false;
+        Move move = chooseMove(position, isBlackTurn);
+        lastStats = collectStats(isBlackTurn, position.countEmpty(), System.nanoTime() - start);
+        if (!Thread.currentThread().isInterrupted()) {
+            SearchTelemetry.of(difficulty).record(lastStats);
+        }
+        return move;
+    }
+
+    // Sum the counters of the solver and the searchers that ran for the last move
+    private SearchStats collectStats(boolean isBlackTurn, int empties, long nanos) {
+        long nodes = 0, expandedNodes = 0, cutoffs = 0, firstMoveCutoffs = 0, ttProbes = 0, ttHits = 0, probCuts = 0;
+        if (solverUsed) {
+            nodes += endgameSolver.nodes;
+            expandedNodes += endgameSolver.expandedNodes;
+            cutoffs += endgameSolver.cutoffs;
+            firstMoveCutoffs += endgameSolver.firstMoveCutoffs;
+            ttProbes += endgameSolver.ttProbes;
+            ttHits += endgameSolver.ttHits;
+        }
+        if (searchUsed) {
+            for (Searcher searcher : searchers) {
+                nodes += searcher.nodes;
+                expandedNodes += searcher.expandedNodes;
+                cutoffs += searcher.cutoffs;
+                firstMoveCutoffs += searcher.firstMoveCutoffs;
+                ttProbes += searcher.ttProbes;
+                ttHits += searcher.ttHits;
+                probCuts += searcher.probCuts;
             }
         }
-        return count;
+        return new SearchStats(isBlackTurn, empties, lastSource, completedDepth, nanos, nodes,
+                expandedNodes, cutoffs, firstMoveCutoffs, ttProbes, ttHits, probCuts);
     }
 
-    // Get all valid moves for a player
-    private List<Move> getValidMoves(int[][] boardState, boolean isBlackTurn) {
-        List<Move> moves = new ArrayList<>();
-        for (int i = 0; i < Board.BOARD_SIZE; i++) {
-            for (int j = 0; j < Board.BOARD_SIZE; j++) {
-                if (Board.isValidMove(i, j, isBlackTurn, boardState)) {
-                    moves.add(new Move(i, j));
-                }
+    // Choose the move from the book, the endgame solver or the heuristic search
+    private Move chooseMove(BitBoard position, boolean isBlackTurn) {
+        int emptySpaces = position.countEmpty();
+        int maxDepth = getSearchDepth(emptySpaces); // Determine the search depth based on the game phase
+        transpositionTable.newSearch(); // Entries from earlier moves become replaceable
+        searchStartTime = System.nanoTime();
+        stopRequested = false;
+
+        // Opening: play the book move without searching when the position is in the book
+        if (openingBook != null) {
+            int square = openingBook.probe(position, isBlackTurn);
+            if (square != TranspositionTable.NO_MOVE) {
+                completedDepth = 0;
+                lastSource = SearchStats.Source.BOOK;
+                return new Move(square / Board.BOARD_SIZE, square % Board.BOARD_SIZE);
             }
         }
-        return moves;
-    }
-
-    // Count the number of corner pieces for a specific color
-    private int countCorners(int[][] boardState, int color) {
-        int count = 0;
-        if (boardState[0][0] == color)
-            count++;
-        if (boardState[0][Board.BOARD_SIZE - 1] == color)
-            count++;
-        if (boardState[Board.BOARD_SIZE - 1][0] == color)
-            count++;
-        if (boardState[Board.BOARD_SIZE - 1][Board.BOARD_SIZE - 1] == color)
-            count++;
-        return count;
-    }
-
-    // Count the number of stable pieces for a specific color
-    private int countStablePieces(int[][] boardState, int color) {
-        int stableCount = 0;
-        int[][] corners = {{0, 0}, {0, 7}, {7, 0}, {7, 7}};
-        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {-1, 0}, {0, -1}, {-1, -1}, {1, -1}, {-1, 1}};
-
-        for (int[] corner : corners) {
-            if (boardState[corner[0]][corner[1]] == color) {
-                stableCount += 2;
-                for (int[] dir : directions) {
-                    int newRow = corner[0] + dir[0];
-                    int newCol = corner[1] + dir[1];
-                    if (newRow >= 0 && newRow < Board.BOARD_SIZE &&
-                            newCol >= 0 && newCol < Board.BOARD_SIZE &&
-                            boardState[newRow][newCol] == color) {
-                        stableCount++;
-                    }
+
+        // Endgame: solve with perfect play, falling back to the heuristic search if the solver runs out of time
+        searchTimeLimit = timeLimitMillis;
+        if (emptySpaces <= winLossDrawSolverEmpties) {
+            Move solved = solveEndgame(position, isBlackTurn, emptySpaces);
+            if (solved != null) {
+                return solved;
+            }
+            searchTimeLimit = Math.max(1, timeLimitMillis - elapsedMillis()); // The heuristic search gets the rest
+            searchStartTime = System.nanoTime();
+        }
+
+        // Lazy SMP: helper threads search the same position through the shared table, half of them one ply ahead
+        searchUsed = true;
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < searchers.length; i++) {
+            Searcher helper = searchers[i];
+            int startDepth = 1 + (i & 1);
+            helpers.add(executor.submit(() -> helper.iterate(position, isBlackTurn, startDepth, maxDepth)));
+        }
+        List<Move> bestMoves = searchers[0].iterate(position, isBlackTurn, 1, maxDepth);
+        stopRequested = true; // The main searcher decides the move, so the helpers can stop
+        boolean interrupted = false;
+        for (Future<?> helper : helpers) {
+            while (true) {
+                try {
+                    helper.get(); // Wait even when interrupted, so the next search never shares a searcher with a helper
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    e.printStackTrace(); // A failed helper only loses its contribution to the shared table
+                    break;
                 }
             }
         }
+        if (interrupted) {
+            Thread.currentThread().interrupt(); // Keep the cancellation visible to the caller
+        }
+
+        completedDepth = searchers[0].completedDepth;
+        if (bestMoves == null) {
+            return null; // Cancelled before the first iteration completed
+        }
+
+        // Randomly select one of the best moves if there are multiple
+        Random random = new Random();
+        return bestMoves.get(random.nextInt(bestMoves.size()));
+    }
 
-        return stableCount;
+    // Run the endgame solver and return its move, or null if the heuristic search should decide
+    private Move solveEndgame(BitBoard position, boolean isBlackTurn, int emptySpaces) {
+        boolean winLossDrawOnly = emptySpaces > exactSolverEmpties;
+        // Within the full-depth range the solver may use the whole budget, otherwise it leaves half for the fallback
+        long budget = emptySpaces <= FULL_DEPTH_EMPTIES ? timeLimitMillis : timeLimitMillis / 2;
+        solverDeadline = searchStartTime + budget * 1_000_000;
+        int square = endgameSolver.solveRoot(position, isBlackTurn, winLossDrawOnly);
+        solverUsed = true;
+        if (square == TranspositionTable.NO_MOVE || (winLossDrawOnly && endgameSolver.lastScore < 0)) {
+            return null; // Out of time, or a proven loss where the heuristic search plays on for the opponent's mistakes
+        }
+        completedDepth = emptySpaces;
+        lastSource = SearchStats.Source.SOLVER;
+        return new Move(square / Board.BOARD_SIZE, square % Board.BOARD_SIZE);
+    }
+
+    // Check the endgame solver's budget
+    boolean isSolverOutOfBudget(long nodes) {
+        return Thread.currentThread().isInterrupted()
+                || (timeLimitMillis > 0 && !pondering && System.nanoTime() >= solverDeadline)
+                || (nodeLimit > 0 && nodes >= nodeLimit);
+    }
+
+    // Time the current search started (System.nanoTime)
+    long getSearchStartTime() {
+        return searchStartTime;
+    }
+
+    // Milliseconds since the current search started
+    private long elapsedMillis() {
+        return (System.nanoTime() - searchStartTime) / 1_000_000;
+    }
+
+    // Check if another iteration is likely to finish within the time budget
+    boolean hasTimeForNextDepth() {
+        return !stopRequested && !Thread.currentThread().isInterrupted() && (timeLimitMillis == 0 || pondering || elapsedMillis() * 2 <= searchTimeLimit);
+    }
+
+    // Check the search budget for a searcher, marking it aborted when it must stop
+    boolean isOutOfBudget(Searcher searcher) {
+        if (searcher != searchers[0]) {
+            searcher.aborted = stopRequested; // Helpers stop when the main searcher is done
+        } else if (Thread.currentThread().isInterrupted()) {
+            searcher.aborted = true; // The search was cancelled
+        } else if (searcher.completedDepth > 0) { // Depth 1 always completes so there is a move to play
+            searcher.aborted = (timeLimitMillis > 0 && !pondering && elapsedMillis() >= searchTimeLimit)
+                    || (nodeLimit > 0 && searcher.nodes >= nodeLimit);
+        }
+        return searcher.aborted;
+    }
+
+    // Evaluate the board based on the difficulty level
+    // All factors are computed in one pass over the piece masks, without allocation
+    int evaluateBoard(BitBoard board, boolean isBlackTurn) {
+        long black = board.black;
+        long white = board.white;
+        if (difficulty == AIDifficulty.PATTERN) {
+            int evaluation = patternEvaluator.evaluate(black, white); // Pattern tables (pattern level)
+            return isBlackTurn ? evaluation : -evaluation;
+        }
+        int evaluation = (Long.bitCount(black) - Long.bitCount(white)) * weights.PieceDifferential; // Piece differential (all levels)
+        if (difficulty != AIDifficulty.EASY) {
+            evaluation += BitBoard.mobilityDifference(black, white) * weights.Mobility; // Mobility (medium and above)
+        }
+        if (difficulty == AIDifficulty.HARD || difficulty == AIDifficulty.EXPERT) {
+            int cornerDifference = Long.bitCount(black & BitBoard.CORNERS) - Long.bitCount(white & BitBoard.CORNERS);
+            evaluation += cornerDifference * weights.Corner; // Corners (hard and expert)
+        }
+        if (difficulty == AIDifficulty.EXPERT) {
+            int stableDifference = Long.bitCount(BitBoard.stableDiscs(black, white)) - Long.bitCount(BitBoard.stableDiscs(white, black));
+            evaluation += stableDifference * weights.Stability; // Stability (expert)
+        }
+        if (!isBlackTurn) {
+            evaluation = -evaluation; // Invert evaluation for white player
+        }
+
+        return evaluation;
     }
 
     // Determine the search depth based on the number of empty spaces
-    private int getSearchDepth() {
-        int emptySpaces = Board.BOARD_SIZE * Board.BOARD_SIZE - gameEngine.placedTiles;
-        if (emptySpaces <= 13)
+    private int getSearchDepth(int emptySpaces) {
+        if (emptySpaces <= FULL_DEPTH_EMPTIES)
             return emptySpaces; // End game: search all remaining moves
+        int extra = probCut != null ? ProbCut.EXTRA_DEPTH : 0; // Pruned searches reach deeper in the same time
         if (emptySpaces <= 16)
-            return 10; // Late game: search depth 10
+            return Math.min(emptySpaces, 10 + extra); // Late game: search depth 10
         if (emptySpaces <= 32)
-            return 8; // Mid-game: search depth 8
-        return 7; // Early game: search depth 7
+            return 8 + extra; // Mid-game: search depth 8
+        return 7 + extra; // Early game: search depth 7
     }
 }
\ No newline at end of file
@@ -1,3 +1,3 @@
 public enum AIDifficulty {
-    EASY, MEDIUM, HARD, EXPERT
+    EASY, MEDIUM, HARD, EXPERT, PATTERN
 }
@@ -0,0 +1,373 @@
+public final class BitBoard {
+    public static final long CORNERS = 0x8100000000000081L; // Mask of the four corner squares
+    private static final long NOT_COL_0 = 0xfefefefefefefefeL; // Every square except column 0
+    private static final long NOT_COL_7 = 0x7f7f7f7f7f7f7f7fL; // Every square except column 7
+    private static final long ALL = 0xffffffffffffffffL; // Every square on the board
+    private static final long EDGES = 0xff818181818181ffL; // Every square on the outer ring
+    private static final long[] DIAGONALS = new long[15]; // Lines parallel to a1-h8, by col - row + 7
+    private static final long[] ANTI_DIAGONALS = new long[15]; // Lines parallel to h1-a8, by col + row
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = square / Board.BOARD_SIZE;
+            int col = square % Board.BOARD_SIZE;
+            DIAGONALS[col - row + 7] |= 1L << square;
+            ANTI_DIAGONALS[col + row] |= 1L << square;
+        }
+    }
+
+    // Shift amounts for the 8 directions (square index = row * 8 + col) and the masks that stop wrapping across columns
+    private static final int[] SHIFTS = {1, -1, 8, -8, 9, -9, 7, -7};
+    private static final long[] SHIFT_MASKS = {NOT_COL_0, NOT_COL_7, ALL, ALL, NOT_COL_0, NOT_COL_7, NOT_COL_7, NOT_COL_0};
+
+    public long black; // Bit set for every black piece
+    public long white; // Bit set for every white piece
+    public long hash; // Zobrist key of the pieces, updated incrementally by makeMove and undoMove
+
+    // Constructor to create an empty position
+    public BitBoard() {
+    }
+
+    // Constructor to create a position from the two piece masks
+    public BitBoard(long black, long white) {
+        setPosition(black, white);
+    }
+
+    // Copy constructor
+    public BitBoard(BitBoard original) {
+        this.black = original.black;
+        this.white = original.white;
+        this.hash = original.hash;
+    }
+
+    // Replace the position and recompute its Zobrist key
+    public void setPosition(long black, long white) {
+        this.black = black;
+        this.white = white;
+        this.hash = Zobrist.hash(black, white);
+    }
+
+    // Convert a row and column to a square index
+    public static int square(int row, int col) {
+        return row * Board.BOARD_SIZE + col;
+    }
+
+    // Shift a mask one step in the given direction, dropping pieces that would wrap around a column
+    private static long shift(long bits, int direction) {
+        int amount = SHIFTS[direction];
+        long shifted = amount > 0 ? bits << amount : bits >>> -amount;
+        return shifted & SHIFT_MASKS[direction];
+    }
+
+    // Get the mask of all valid moves for the player against the opponent
+    public static long getMoves(long player, long opponent) {
+        long empty = ~(player | opponent);
+        long moves = 0;
+        for (int direction = 0; direction < 8; direction++) {
+            moves |= movesInDirection(player, opponent, empty, SHIFTS[direction], SHIFT_MASKS[direction]);
+        }
+        return moves;
+    }
+
+    // Check if the player has any valid move, stopping at the first direction that yields one
+    public static boolean hasMoves(long player, long opponent) {
+        long empty = ~(player | opponent);
+        for (int direction = 0; direction < 8; direction++) {
+            if (movesInDirection(player, opponent, empty, SHIFTS[direction], SHIFT_MASKS[direction]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Number of valid moves of the player minus those of the opponent, with both move masks built in one pass
+    public static int mobilityDifference(long player, long opponent) {
+        long empty = ~(player | opponent);
+        long playerMoves = 0;
+        long opponentMoves = 0;
+        for (int direction = 0; direction < 8; direction++) {
+            int amount = SHIFTS[direction];
+            long mask = SHIFT_MASKS[direction];
+            playerMoves |= movesInDirection(player, opponent, empty, amount, mask);
+            opponentMoves |= movesInDirection(opponent, player, empty, amount, mask);
+        }
+        return Long.bitCount(playerMoves) - Long.bitCount(opponentMoves);
+    }
+
+    // Empty squares that end a run of up to 6 opponent pieces adjacent to the player's pieces in one direction
+    private static long movesInDirection(long player, long opponent, long empty, int amount, long mask) {
+        long flanked = opponent & mask; // Opponent pieces that can be reached without wrapping
+        long run;
+        if (amount > 0) {
+            run = (player << amount) & flanked;
+            run |= (run << amount) & flanked;
+            run |= (run << amount) & flanked;
+            run |= (run << amount) & flanked;
+            run |= (run << amount) & flanked;
+            run |= (run << amount) & flanked;
+            return (run << amount) & mask & empty;
+        }
+        run = (player >>> -amount) & flanked;
+        run |= (run >>> -amount) & flanked;
+        run |= (run >>> -amount) & flanked;
+        run |= (run >>> -amount) & flanked;
+        run |= (run >>> -amount) & flanked;
+        run |= (run >>> -amount) & flanked;
+        return (run >>> -amount) & mask & empty;
+    }
+
+    // Mirror a mask top to bottom (row r becomes row 7 - r)
+    public static long flipVertical(long bits) {
+        return Long.reverseBytes(bits);
+    }
+
+    // Mirror a mask left to right (column c becomes column 7 - c)
+    public static long mirrorHorizontal(long bits) {
+        return Long.reverseBytes(Long.reverse(bits));
+    }
+
+    // Mirror a mask along the main diagonal (row and column swap places)
+    public static long flipDiagonal(long bits) {
+        long swap = 0x0f0f0f0f00000000L & (bits ^ (bits << 28));
+        bits ^= swap ^ (swap >>> 28);
+        swap = 0x3333000033330000L & (bits ^ (bits << 14));
+        bits ^= swap ^ (swap >>> 14);
+        swap = 0x5500550055005500L & (bits ^ (bits << 7));
+        bits ^= swap ^ (swap >>> 7);
+        return bits;
+    }
+
+    // Apply one of the 8 board symmetries: bit 2 flips along the diagonal, then bit 1 mirrors top to bottom and
+    // bit 0 left to right (0 is the identity)
+    public static long transform(long bits, int symmetry) {
+        if ((symmetry & 4) != 0) {
+            bits = flipDiagonal(bits);
+        }
+        if ((symmetry & 2) != 0) {
+            bits = flipVertical(bits);
+        }
+        if ((symmetry & 1) != 0) {
+            bits = mirrorHorizontal(bits);
+        }
+        return bits;
+    }
+
+    // Get the symmetry that undoes the given one (the mirrors swap roles when they are moved across the diagonal)
+    public static int inverseSymmetry(int symmetry) {
+        return (symmetry & 4) == 0 ? symmetry : 4 | (symmetry & 1) << 1 | (symmetry & 2) >> 1;
+    }
+
+    // Apply a symmetry to a square index
+    public static int transformSquare(int square, int symmetry) {
+        return Long.numberOfTrailingZeros(transform(1L << square, symmetry));
+    }
+
+    // Get the symmetry that maps a position to its canonical form: the variant with the smallest black mask, then
+    // the smallest white mask (compared unsigned); the lowest such symmetry when the position is itself symmetric
+    public static int canonicalSymmetry(long black, long white) {
+        int best = 0;
+        long bestBlack = black;
+        long bestWhite = white;
+        for (int symmetry = 1; symmetry < 8; symmetry++) {
+            long b = transform(black, symmetry);
+            int order = Long.compareUnsigned(b, bestBlack);
+            if (order > 0) {
+                continue;
+            }
+            long w = transform(white, symmetry);
+            if (order < 0 || Long.compareUnsigned(w, bestWhite) < 0) {
+                best = symmetry;
+                bestBlack = b;
+                bestWhite = w;
+            }
+        }
+        return best;
+    }
+
+    // Get the symmetry that maps this position to its canonical form
+    public int canonicalSymmetry() {
+        return canonicalSymmetry(black, white);
+    }
+
+    // Zobrist key (with the player to move) of the position after applying a symmetry
+    public long symmetricKey(int symmetry, boolean isBlackTurn) {
+        long symmetricHash = symmetry == 0 ? hash : Zobrist.hash(transform(black, symmetry), transform(white, symmetry));
+        return Zobrist.key(symmetricHash, isBlackTurn);
+    }
+
+    // Zobrist key shared by all 8 symmetric variants of the position
+    public long canonicalKey(boolean isBlackTurn) {
+        return symmetricKey(canonicalSymmetry(), isBlackTurn);
+    }
+
+    // Get the discs of the player that can never be flipped (a conservative, not always complete, set)
+    // A disc is stable when along each of the 4 lines through it the line is full, the disc is on the board edge,
+    // or a neighbour on that line is a stable disc of the same color; the stable set grows from the corners and
+    // full lines until it stops changing
+    public static long stableDiscs(long player, long opponent) {
+        long occupied = player | opponent;
+        long fullRows = 0;
+        long fullColumns = ALL;
+        for (int row = 0; row < Board.BOARD_SIZE; row++) {
+            long rowMask = 0xffL << (row * Board.BOARD_SIZE);
+            if ((occupied & rowMask) == rowMask) {
+                fullRows |= rowMask;
+            }
+            fullColumns &= occupied >>> (row * Board.BOARD_SIZE) | ~0xffL; // A column is full if every row has it
+        }
+        if ((occupied & CORNERS) == 0 && fullRows == 0) {
+            return 0; // Without a corner the first stable disc would need its row (and its other lines) full
+        }
+        fullColumns = (fullColumns & 0xffL) * 0x0101010101010101L; // Spread the full columns to every row
+        long fullDiagonals = 0;
+        long fullAntiDiagonals = 0;
+        for (int i = 0; i < 15; i++) {
+            if ((occupied & DIAGONALS[i]) == DIAGONALS[i]) {
+                fullDiagonals |= DIAGONALS[i];
+            }
+            if ((occupied & ANTI_DIAGONALS[i]) == ANTI_DIAGONALS[i]) {
+                fullAntiDiagonals |= ANTI_DIAGONALS[i];
+            }
+        }
+
+        long stable = 0;
+        while (true) {
+            long horizontal = fullRows | 0x8181818181818181L | (stable << 1 & NOT_COL_0) | (stable >>> 1 & NOT_COL_7);
+            long vertical = fullColumns | 0xff000000000000ffL | stable << 8 | stable >>> 8;
+            long diagonal = fullDiagonals | EDGES | (stable << 9 & NOT_COL_0) | (stable >>> 9 & NOT_COL_7);
+            long antiDiagonal = fullAntiDiagonals | EDGES | (stable << 7 & NOT_COL_7) | (stable >>> 7 & NOT_COL_0);
+            long next = stable | (player & horizontal & vertical & diagonal & antiDiagonal);
+            if (next == stable) {
+                return stable;
+            }
+            stable = next;
+        }
+    }
+
+    // Get the mask of opponent pieces flipped by placing a piece on the given square (0 if the move is invalid)
+    public static long getFlips(int square, long player, long opponent) {
+        long move = 1L << square;
+        if (((player | opponent) & move) != 0) {
+            return 0; // Square is not empty
+        }
+
+        long flips = 0;
+        for (int direction = 0; direction < 8; direction++) {
+            long line = 0;
+            long cursor = shift(move, direction);
+            while ((cursor & opponent) != 0) {
+                line |= cursor; // Collect opponent pieces along the ray
+                cursor = shift(cursor, direction);
+            }
+            if ((cursor & player) != 0) {
+                flips |= line; // The run is flanked by the player's piece
+            }
+        }
+        return flips;
+    }
+
+    // Get the valid moves for a given player
+    public long getMoves(boolean isBlackTurn) {
+        return isBlackTurn ? getMoves(black, white) : getMoves(white, black);
+    }
+
+    // Check if a given player has any valid move
+    public boolean hasMoves(boolean isBlackTurn) {
+        return isBlackTurn ? hasMoves(black, white) : hasMoves(white, black);
+    }
+
+    // Count the valid moves of a given player
+    public int countMoves(boolean isBlackTurn) {
+        return Long.bitCount(getMoves(isBlackTurn));
+    }
+
+    // Get the pieces flipped by a move for a given player
+    public long getFlips(int square, boolean isBlackTurn) {
+        return isBlackTurn ? getFlips(square, black, white) : getFlips(square, white, black);
+    }
+
+    // Check if a move is valid for a given player
+    public boolean isValidMove(int square, boolean isBlackTurn) {
+        return getFlips(square, isBlackTurn) != 0;
+    }
+
+    // Place a piece and flip the opponent's pieces in place (the move must be valid), returning the flip mask for undoMove
+    public long makeMove(int square, boolean isBlackTurn) {
+        long flips = getFlips(square, isBlackTurn);
+        long move = 1L << square;
+        if (isBlackTurn) {
+            black |= move | flips;
+            white &= ~flips;
+        } else {
+            white |= move | flips;
+            black &= ~flips;
+        }
+        hash ^= hashChange(square, flips, isBlackTurn);
+        return flips;
+    }
+
+    // Play a move again from the flip mask makeMove returned for it, without recomputing the flips
+    public void redoMove(int square, long flips, boolean isBlackTurn) {
+        long move = 1L << square;
+        if (isBlackTurn) {
+            black |= move | flips;
+            white &= ~flips;
+        } else {
+            white |= move | flips;
+            black &= ~flips;
+        }
+        hash ^= hashChange(square, flips, isBlackTurn);
+    }
+
+    // Take back a move made by makeMove using the flip mask it returned
+    public void undoMove(int square, long flips, boolean isBlackTurn) {
+        long move = 1L << square;
+        if (isBlackTurn) {
+            black &= ~(move | flips);
+            white |= flips;
+        } else {
+            white &= ~(move | flips);
+            black |= flips;
+        }
+        hash ^= hashChange(square, flips, isBlackTurn);
+    }
+
+    // Zobrist key difference caused by a move (the same value applies and removes it)
+    private static long hashChange(int square, long flips, boolean isBlackTurn) {
+        long change = isBlackTurn ? Zobrist.BLACK[square] : Zobrist.WHITE[square];
+        for (; flips != 0; flips &= flips - 1) {
+            change ^= Zobrist.FLIP[Long.numberOfTrailingZeros(flips)];
+        }
+        return change;
+    }
+
+    // Check if the game is over (no valid moves for either player)
+    public boolean isGameOver() {
+        return !hasMoves(black, white) && !hasMoves(white, black);
+    }
+
+    // Count the number of black pieces
+    public int countBlack() {
+        return Long.bitCount(black);
+    }
+
+    // Count the number of white pieces
+    public int countWhite() {
+        return Long.bitCount(white);
+    }
+
+    // Count the number of empty squares
+    public int countEmpty() {
+        return 64 - Long.bitCount(black | white);
+    }
+
+    // Write the position into a 2D state array (0 empty, 1 black, 2 white)
+    public void toState(int[][] state) {
+        for (int i = 0; i < Board.BOARD_SIZE; i++) {
+            for (int j = 0; j < Board.BOARD_SIZE; j++) {
+                long bit = 1L << square(i, j);
+                state[i][j] = (black & bit) != 0 ? 1 : (white & bit) != 0 ? 2 : 0;
+            }
+        }
+    }
+}
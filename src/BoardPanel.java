@@ -0,0 +1,137 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+// Painted game board: discs are drawn from sprites made once per cell size, and a new position only repaints the
+// squares whose disc, move highlight or last-move marker changed
+public final class BoardPanel extends JComponent {
+    private static final long serialVersionUID = 1L;
+    private static final Color BOARD_COLOR = new Color(0, 120, 0); // Background of a square
+    private static final Color VALID_MOVE_COLOR = new Color(0, 180, 0); // Background of a valid move
+    private static final Color GRID_COLOR = Color.DARK_GRAY; // Lines between squares
+    private static final Color LAST_MOVE_COLOR = Color.YELLOW; // Border of the last move
+    private static final int LAST_MOVE_BORDER = 3; // Width of the last move border
+    private static final int DISC_MARGIN = 5; // Space between a disc and the edge of its square
+
+    private long black; // Black discs shown
+    private long white; // White discs shown
+    private long validMoves; // Squares highlighted as valid moves
+    private int lastMove = -1; // Square of the highlighted last move (-1 for none)
+    private transient int spriteSize; // Cell size the sprites were made for (0 before the first paint)
+    private transient BufferedImage blackDisc; // Sprite of a black disc
+    private transient BufferedImage whiteDisc; // Sprite of a white disc
+
+    // Receives clicks on the board
+    public interface SquareListener {
+        void squareClicked(int row, int col);
+    }
+
+    // Constructor to create a board that reports clicked squares to the listener
+    public BoardPanel(SquareListener listener) {
+        setPreferredSize(new Dimension(Board.BOARD_SIZE * Board.CELL_SIZE, Board.BOARD_SIZE * Board.CELL_SIZE));
+        setOpaque(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int cell = cellSize();
+                int row = e.getY() / cell;
+                int col = e.getX() / cell;
+                if (row < Board.BOARD_SIZE && col < Board.BOARD_SIZE) {
+                    listener.squareClicked(row, col);
+                }
+            }
+        });
+    }
+
+    // Show a position, repainting only the squares that differ from the one shown
+    public void setPosition(long black, long white, long validMoves, int lastMoveRow, int lastMoveCol) {
+        int lastMove = lastMoveRow >= 0 && lastMoveCol >= 0 ? BitBoard.square(lastMoveRow, lastMoveCol) : -1;
+        long changed = (this.black ^ black) | (this.white ^ white) | (this.validMoves ^ validMoves);
+        if (lastMove != this.lastMove) {
+            changed |= squareBit(this.lastMove) | squareBit(lastMove);
+        }
+        this.black = black;
+        this.white = white;
+        this.validMoves = validMoves;
+        this.lastMove = lastMove;
+        int cell = cellSize();
+        for (; changed != 0; changed &= changed - 1) {
+            int square = Long.numberOfTrailingZeros(changed);
+            repaint((square % Board.BOARD_SIZE) * cell, (square / Board.BOARD_SIZE) * cell, cell, cell);
+        }
+    }
+
+    // Mask of a square (0 for -1)
+    private static long squareBit(int square) {
+        return square >= 0 ? 1L << square : 0;
+    }
+
+    // Side of one square in pixels
+    private int cellSize() {
+        return Math.max(1, Math.min(getWidth(), getHeight()) / Board.BOARD_SIZE);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int cell = cellSize();
+        if (cell != spriteSize) {
+            blackDisc = createDisc(Color.BLACK, cell);
+            whiteDisc = createDisc(Color.WHITE, cell);
+            spriteSize = cell;
+        }
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getParent() != null ? getParent().getBackground() : BOARD_COLOR);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height); // Space beside the board when the window is not square
+
+        // Paint only the squares inside the area Swing asked for
+        int firstRow = Math.max(0, clip.y / cell);
+        int lastRow = Math.min(Board.BOARD_SIZE - 1, (clip.y + clip.height - 1) / cell);
+        int firstCol = Math.max(0, clip.x / cell);
+        int lastCol = Math.min(Board.BOARD_SIZE - 1, (clip.x + clip.width - 1) / cell);
+        FontMetrics metrics = g.getFontMetrics();
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int square = BitBoard.square(row, col);
+                long bit = 1L << square;
+                int x = col * cell;
+                int y = row * cell;
+                g.setColor((validMoves & bit) != 0 ? VALID_MOVE_COLOR : BOARD_COLOR);
+                g.fillRect(x, y, cell, cell);
+                g.setColor(GRID_COLOR);
+                g.drawRect(x, y, cell - 1, cell - 1);
+                if ((black & bit) != 0) {
+                    g.drawImage(blackDisc, x + DISC_MARGIN, y + DISC_MARGIN, null);
+                } else if ((white & bit) != 0) {
+                    g.drawImage(whiteDisc, x + DISC_MARGIN, y + DISC_MARGIN, null);
+                } else {
+                    String label = row + "," + col; // Empty squares show their coordinates
+                    g.drawString(label, x + (cell - metrics.stringWidth(label)) / 2,
+                            y + (cell + metrics.getAscent() - metrics.getDescent()) / 2);
+                }
+                if (square == lastMove) {
+                    g.setColor(LAST_MOVE_COLOR);
+                    for (int i = 0; i < LAST_MOVE_BORDER; i++) {
+                        g.drawRect(x + i, y + i, cell - 1 - 2 * i, cell - 1 - 2 * i);
+                    }
+                }
+            }
+        }
+    }
+
+    // Draw a disc sprite for a square of the given size
+    private static BufferedImage createDisc(Color color, int cell) {
+        int size = Math.max(1, cell - 2 * DISC_MARGIN); // Set the size of the disk
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB); // Create a buffered image
+        Graphics2D g2d = image.createGraphics(); // Get graphics context
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON); // Enable anti-aliasing
+        g2d.setColor(color); // Set the color of the disk
+        g2d.fillOval(0, 0, size, size); // Draw the disk
+        g2d.dispose(); // Release graphics resources
+        return image;
+    }
+}
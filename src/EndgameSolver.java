@@ -0,0 +1,350 @@
+public class EndgameSolver {
+    private static final int SCORE_INFINITY = 65; // Larger than any final disc differential
+    private static final int FASTEST_FIRST_EMPTIES = 7; // From this many empties moves are sorted by opponent mobility
+    private static final int TABLE_EMPTIES = 10; // From this many empties results are stored in the transposition table
+    private static final long ENDGAME_KEY = 0x9E3779B97F4A7C15L; // Keeps solver entries apart from midgame entries
+    private static final long[] QUADRANTS = {0x000000000F0F0F0FL, 0x00000000F0F0F0F0L, 0x0F0F0F0F00000000L, 0xF0F0F0F000000000L};
+
+    private final AI ai; // AI that owns this solver (search budget)
+    private final TranspositionTable transpositionTable; // Table shared with the midgame search
+    private final int[][] moves = new int[64][64]; // Move buffers per number of empties
+    private final int[][] scores = new int[64][64]; // Ordering scores per number of empties
+    long nodes; // Nodes searched by the last solve
+    long expandedNodes; // Nodes with 4 or more empties whose moves were searched
+    long cutoffs; // Beta cutoffs at nodes with 4 or more empties
+    long firstMoveCutoffs; // Those cutoffs caused by the first move searched
+    long ttProbes; // Transposition table probes
+    long ttHits; // Probes that found the position
+    boolean aborted; // Set when the last solve ran out of budget
+    int lastScore; // Final disc differential (or win/loss/draw sign) of the last completed solve
+
+    // Constructor to create a solver for an AI and its transposition table
+    public EndgameSolver(AI ai, TranspositionTable transpositionTable) {
+        this.ai = ai;
+        this.transpositionTable = transpositionTable;
+    }
+
+    // Find the best move with perfect play, or NO_MOVE if the search ran out of budget
+    // In win/loss/draw mode the score only tells whether the side to move wins (+1), draws (0) or loses (-1)
+    public int solveRoot(BitBoard position, boolean isBlackTurn, boolean winLossDrawOnly) {
+        long player = isBlackTurn ? position.black : position.white;
+        long opponent = isBlackTurn ? position.white : position.black;
+        int empties = position.countEmpty();
+        resetCounters();
+
+        int alpha = winLossDrawOnly ? -1 : -SCORE_INFINITY;
+        int beta = winLossDrawOnly ? 1 : SCORE_INFINITY;
+        int bestScore = -SCORE_INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+        int count = orderMoves(player, opponent, empties);
+        for (int i = 0; i < count; i++) {
+            int square = moves[empties][i];
+            long flips = BitBoard.getFlips(square, player, opponent);
+            int score = -solve(opponent & ~flips, player | flips | (1L << square), -beta, -alpha, false, empties - 1);
+            if (aborted) {
+                return TranspositionTable.NO_MOVE;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = square;
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (alpha >= beta) {
+                    break; // A win is enough in win/loss/draw mode
+                }
+            }
+        }
+        lastScore = bestScore;
+        return bestMove;
+    }
+
+    // Exact final disc differential for the side to move (unlimited budget, used by offline tools)
+    public int solve(BitBoard position, boolean isBlackTurn) {
+        long player = isBlackTurn ? position.black : position.white;
+        long opponent = isBlackTurn ? position.white : position.black;
+        resetCounters();
+        return solve(player, opponent, -SCORE_INFINITY, SCORE_INFINITY, false, position.countEmpty());
+    }
+
+    // Clear the statistics of the last solve
+    private void resetCounters() {
+        nodes = 0;
+        expandedNodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        ttProbes = 0;
+        ttHits = 0;
+        aborted = false;
+    }
+
+    // Negamax alpha-beta solver returning the final disc differential for the player to move
+    private int solve(long player, long opponent, int alpha, int beta, boolean passed, int empties) {
+        nodes++;
+        if ((nodes & 4095) == 0 && ai != null && ai.isSolverOutOfBudget(nodes)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        switch (empties) {
+            case 0:
+                return finalScore(player, opponent);
+            case 1:
+                return solve1(player, opponent, ~(player | opponent));
+            case 2:
+                return solve2(player, opponent, alpha, beta, false);
+            case 3:
+                return solve3(player, opponent, alpha, beta, false);
+            default:
+                break;
+        }
+
+        long validMoves = BitBoard.getMoves(player, opponent);
+        if (validMoves == 0) {
+            if (passed || !BitBoard.hasMoves(opponent, player)) {
+                return finalScore(player, opponent); // Neither side can move
+            }
+            return -solve(opponent, player, -beta, -alpha, true, empties); // Pass
+        }
+
+        // Stability cutoff: the opponent's stable discs cap the final score, the player's own stable discs floor it
+        if (64 - 2 * Long.bitCount(opponent) <= alpha) { // Only then can enough of the opponent's discs be stable
+            int upper = 64 - 2 * Long.bitCount(BitBoard.stableDiscs(opponent, player));
+            if (upper <= alpha) {
+                return upper;
+            }
+        }
+        if (2 * Long.bitCount(player) - 64 >= beta) {
+            int lower = 2 * Long.bitCount(BitBoard.stableDiscs(player, opponent)) - 64;
+            if (lower >= beta) {
+                return lower;
+            }
+        }
+
+        // Probe the table for large subtrees
+        long key = 0;
+        int ttMove = TranspositionTable.NO_MOVE;
+        if (empties >= TABLE_EMPTIES && transpositionTable != null) {
+            key = Zobrist.hash(player, opponent) ^ ENDGAME_KEY;
+            long entry = transpositionTable.probe(key);
+            ttProbes++;
+            if (entry != 0) {
+                ttHits++;
+                int storedScore = TranspositionTable.score(entry);
+                switch (TranspositionTable.bound(entry)) {
+                    case TranspositionTable.EXACT -> {
+                        return storedScore;
+                    }
+                    case TranspositionTable.LOWER_BOUND -> alpha = Math.max(alpha, storedScore);
+                    case TranspositionTable.UPPER_BOUND -> beta = Math.min(beta, storedScore);
+                }
+                if (alpha >= beta) {
+                    return storedScore;
+                }
+                ttMove = TranspositionTable.bestMove(entry);
+            }
+        }
+
+        int alphaOriginal = alpha;
+        int bestScore = -SCORE_INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+        int count = orderMoves(player, opponent, empties);
+        if (ttMove != TranspositionTable.NO_MOVE) {
+            moveToFront(empties, count, ttMove);
+        }
+        expandedNodes++;
+        for (int i = 0; i < count; i++) {
+            int square = moves[empties][i];
+            long flips = BitBoard.getFlips(square, player, opponent);
+            long nextPlayer = opponent & ~flips;
+            long nextOpponent = player | flips | (1L << square);
+            int score;
+            if (i == 0) {
+                score = -solve(nextPlayer, nextOpponent, -beta, -alpha, false, empties - 1);
+            } else {
+                // Null-window scout of the later moves, searched again only if they beat the first one
+                score = -solve(nextPlayer, nextOpponent, -alpha - 1, -alpha, false, empties - 1);
+                if (score > alpha && score < beta) {
+                    score = -solve(nextPlayer, nextOpponent, -beta, -score, false, empties - 1);
+                }
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = square;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        cutoffs++;
+                        if (i == 0) {
+                            firstMoveCutoffs++;
+                        }
+                        break; // Beta cutoff
+                    }
+                }
+            }
+        }
+
+        if (key != 0 && !aborted) {
+            int bound = bestScore <= alphaOriginal ? TranspositionTable.UPPER_BOUND
+                    : bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            transpositionTable.store(key, empties, bound, bestScore, bestMove);
+        }
+        return bestScore;
+    }
+
+    // Fill moves[empties] in search order: odd regions first (parity), then fewest opponent replies (fastest first)
+    private int orderMoves(long player, long opponent, int empties) {
+        long empty = ~(player | opponent);
+        long oddRegions = 0;
+        for (long quadrant : QUADRANTS) {
+            if ((Long.bitCount(empty & quadrant) & 1) != 0) {
+                oddRegions |= quadrant; // A move here keeps the last move of the region for us
+            }
+        }
+
+        int[] plyMoves = moves[empties];
+        int[] plyScores = scores[empties];
+        int count = 0;
+        for (long validMoves = BitBoard.getMoves(player, opponent); validMoves != 0; validMoves &= validMoves - 1) {
+            int square = Long.numberOfTrailingZeros(validMoves);
+            long bit = 1L << square;
+            int score = (oddRegions & bit) != 0 ? 100 : 0;
+            if ((BitBoard.CORNERS & bit) != 0) {
+                score += 20;
+            }
+            if (empties >= FASTEST_FIRST_EMPTIES) {
+                long flips = BitBoard.getFlips(square, player, opponent);
+                long opponentMoves = BitBoard.getMoves(opponent & ~flips, player | flips | bit);
+                score -= 10 * Long.bitCount(opponentMoves) + 2 * Long.bitCount(opponentMoves & BitBoard.CORNERS);
+            }
+
+            // Insertion sort by descending score
+            int i = count++;
+            while (i > 0 && plyScores[i - 1] < score) {
+                plyMoves[i] = plyMoves[i - 1];
+                plyScores[i] = plyScores[i - 1];
+                i--;
+            }
+            plyMoves[i] = square;
+            plyScores[i] = score;
+        }
+        return count;
+    }
+
+    // Move the given square to the front of the move buffer (keeping the order of the others)
+    private void moveToFront(int empties, int count, int square) {
+        int[] plyMoves = moves[empties];
+        for (int i = 0; i < count; i++) {
+            if (plyMoves[i] == square) {
+                System.arraycopy(plyMoves, 0, plyMoves, 1, i);
+                plyMoves[0] = square;
+                return;
+            }
+        }
+    }
+
+    // Final disc differential with the empty squares going to the winner
+    private static int finalScore(long player, long opponent) {
+        int playerCount = Long.bitCount(player);
+        int opponentCount = Long.bitCount(opponent);
+        int empties = 64 - playerCount - opponentCount;
+        int diff = playerCount - opponentCount;
+        return diff > 0 ? diff + empties : diff < 0 ? diff - empties : 0;
+    }
+
+    // Solve the position with one empty square
+    private int solve1(long player, long opponent, long emptyBit) {
+        nodes++;
+        int square = Long.numberOfTrailingZeros(emptyBit);
+        int diff = Long.bitCount(player) - Long.bitCount(opponent);
+        long flips = BitBoard.getFlips(square, player, opponent);
+        if (flips != 0) {
+            return diff + 1 + 2 * Long.bitCount(flips); // The player fills the last square
+        }
+        flips = BitBoard.getFlips(square, opponent, player);
+        if (flips != 0) {
+            return diff - 1 - 2 * Long.bitCount(flips); // The opponent fills the last square
+        }
+        return diff > 0 ? diff + 1 : diff < 0 ? diff - 1 : 0; // Nobody can move: the empty square goes to the winner
+    }
+
+    // Solve the position with two empty squares
+    private int solve2(long player, long opponent, int alpha, int beta, boolean passed) {
+        nodes++;
+        long empty = ~(player | opponent);
+        long first = empty & -empty;
+        long second = empty ^ first;
+        int bestScore = -SCORE_INFINITY;
+
+        long flips = BitBoard.getFlips(Long.numberOfTrailingZeros(first), player, opponent);
+        if (flips != 0) {
+            bestScore = -solve1(opponent & ~flips, player | flips | first, second);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+        }
+        flips = BitBoard.getFlips(Long.numberOfTrailingZeros(second), player, opponent);
+        if (flips != 0) {
+            bestScore = Math.max(bestScore, -solve1(opponent & ~flips, player | flips | second, first));
+        }
+
+        if (bestScore == -SCORE_INFINITY) {
+            if (passed) {
+                return finalScore(player, opponent); // Neither side can move
+            }
+            return -solve2(opponent, player, -beta, -alpha, true); // Pass
+        }
+        return bestScore;
+    }
+
+    // Solve the position with three empty squares
+    private int solve3(long player, long opponent, int alpha, int beta, boolean passed) {
+        nodes++;
+        long empty = ~(player | opponent);
+        int first = Long.numberOfTrailingZeros(empty);
+        empty &= empty - 1;
+        int second = Long.numberOfTrailingZeros(empty);
+        empty &= empty - 1;
+        int third = Long.numberOfTrailingZeros(empty);
+        // Parity: play the square that is alone in its quadrant first
+        if (quadrant(first) == quadrant(second)) {
+            int lone = third;
+            third = first;
+            first = lone;
+        } else if (quadrant(first) == quadrant(third)) {
+            int lone = second;
+            second = first;
+            first = lone;
+        }
+
+        int bestScore = -SCORE_INFINITY;
+        for (int i = 0; i < 3; i++) {
+            int square = i == 0 ? first : i == 1 ? second : third;
+            long flips = BitBoard.getFlips(square, player, opponent);
+            if (flips != 0) {
+                long bit = 1L << square;
+                int score = -solve2(opponent & ~flips, player | flips | bit, -beta, -Math.max(alpha, bestScore), false);
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (bestScore >= beta) {
+                        return bestScore;
+                    }
+                }
+            }
+        }
+
+        if (bestScore == -SCORE_INFINITY) {
+            if (passed) {
+                return finalScore(player, opponent); // Neither side can move
+            }
+            return -solve3(opponent, player, -beta, -alpha, true); // Pass
+        }
+        return bestScore;
+    }
+
+    // Quadrant index of a square
+    private static int quadrant(int square) {
+        return ((square >> 5) << 1) | ((square >> 2) & 1);
+    }
+}
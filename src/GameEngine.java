@@ -1,62 +1,101 @@
-import javax.swing.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class GameEngine {
-    private Board board; // The game board
+    private final Board board; // The game board
     private final AI blackAI; // AI for the black player
     private final AI whiteAI; // AI for the white player
     private boolean isBlackTurn; // Indicates whose turn it is (true for black, false for white)
-    private final Reversi ui; // Reference to the UI
+    private final GameListener listener; // Receives the board, status and end of game (the window or a server session)
+    private final Executor eventExecutor; // Runs AI results on the listener's thread (the EDT for the window)
     private final GameMode gameMode; // Current game mode (Human vs AI, AI vs AI, etc.)
     private int lastMoveRow = -1; // Row of the last move made
     private int lastMoveCol = -1; // Column of the last move made
     private long gameStartTime; // Time when the game started
     public int placedTiles = 4; // Number of tiles placed on the board (initialized to 4 for starting pieces)
-    public int searchedNodes = 0; // Number of nodes searched by the AI (for performance tracking)
-    private final List<MoveHistory> gameHistory = new ArrayList<>(); // History of moves for undo functionality
+    private final GameHistory history = new GameHistory(); // Moves of the game with flip masks, for undo, redo and the game log
+    private long turnStartTime; // Time the current turn started (System.nanoTime), for the thinking time of human moves
+    private final ExecutorService searchExecutor; // Runs AI searches off the listener's thread
+    private final boolean ownsSearchExecutor; // Shut the executor down with the engine (false for a shared pool)
+    private Future<?> aiSearch; // AI search in progress (null if none)
+    private int aiSearchId = 0; // Incremented for every search and every cancellation (EDT only)
+    private boolean ponderEnabled = true; // Let the AI search on the human's time in Human vs AI games
+    private Future<Move> ponderSearch; // Ponder search in progress or finished (null if none)
+    private long ponderKey; // Position (Zobrist.key) the ponder search will answer, 0 if it only warms the table
 
-    // Constructor to initialize the game engine
-    public GameEngine(Reversi ui, GameMode gameMode, AIDifficulty blackAIDifficulty, AIDifficulty whiteAIDifficulty) {
-        this.ui = ui; // Set the UI reference
+    // Constructor for a game with AIs of the given difficulties (null for a human side), each searching on its own
+    // virtual thread
+    public GameEngine(GameListener listener, Executor eventExecutor, GameMode gameMode,
+                      AIDifficulty blackAIDifficulty, AIDifficulty whiteAIDifficulty) {
+        this(listener, eventExecutor, Executors.newVirtualThreadPerTaskExecutor(), true, gameMode,
+                createAI(gameMode, blackAIDifficulty), createAI(gameMode, whiteAIDifficulty));
+    }
+
+    // Constructor for a game with the given AIs (null for a human side), searching on a shared executor
+    public GameEngine(GameListener listener, Executor eventExecutor, ExecutorService searchExecutor, GameMode gameMode,
+                      AI blackAI, AI whiteAI) {
+        this(listener, eventExecutor, searchExecutor, false, gameMode, blackAI, whiteAI);
+    }
+
+    private GameEngine(GameListener listener, Executor eventExecutor, ExecutorService searchExecutor,
+                       boolean ownsSearchExecutor, GameMode gameMode, AI blackAI, AI whiteAI) {
+        this.listener = listener; // Set the listener
+        this.eventExecutor = eventExecutor;
+        this.searchExecutor = searchExecutor;
+        this.ownsSearchExecutor = ownsSearchExecutor;
         this.gameMode = gameMode; // Set the game mode
         this.board = new Board(); // Initialize the board
         this.isBlackTurn = true; // Black starts first
+        this.blackAI = gameMode == GameMode.HumanvsHuman ? null : blackAI; // No AI in Human vs Human mode
+        this.whiteAI = gameMode == GameMode.HumanvsHuman ? null : whiteAI;
+    }
 
-        // Initialize AI players based on the game mode
-        if (gameMode == GameMode.HumanvsAI || gameMode == GameMode.AIvsAI) {
-            this.blackAI = (blackAIDifficulty != null) ? new AI(blackAIDifficulty, this) : null; // Initialize black AI
-            this.whiteAI = (whiteAIDifficulty != null) ? new AI(whiteAIDifficulty, this) : null; // Initialize white AI
-        } else {
-            this.blackAI = null; // No AI for black in Human vs Human mode
-            this.whiteAI = null; // No AI for white in Human vs Human mode
-        }
+    // Create the AI for one side (null for a human side and in Human vs Human mode)
+    private static AI createAI(GameMode gameMode, AIDifficulty difficulty) {
+        return gameMode != GameMode.HumanvsHuman && difficulty != null ? new AI(difficulty) : null;
     }
 
     // Start the game
     public void startGame() {
         gameStartTime = System.currentTimeMillis(); // Record the start time
+        turnStartTime = System.nanoTime();
         board.initialize(); // Initialize the board with starting pieces
-        ui.updateBoard(board.getState(), isBlackTurn, -1, -1); // Update the UI with the initial board state
-        ui.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), -1, -1); // Update the status message
+        showBoard(-1, -1); // Update the UI with the initial board state
+        listener.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), -1, -1); // Update the status message
 
         // If it's AI's turn, make the first move
         if (gameMode == GameMode.AIvsAI || (gameMode == GameMode.HumanvsAI && isBlackTurn && blackAI != null)) {
             makeAIMove(); // Trigger AI to make the first move
+        } else {
+            startPondering();
+        }
+    }
+
+    // Turn searching on the human's time on or off
+    public void setPondering(boolean ponderEnabled) {
+        this.ponderEnabled = ponderEnabled;
+        if (!ponderEnabled) {
+            stopPondering();
         }
     }
 
     // Make a move for the human player
     public void makePlayerMove(int row, int col) {
-        if (Board.isValidMove(row, col, isBlackTurn, board.getState())) { // Check if the move is valid
-            gameHistory.add(new MoveHistory(board, isBlackTurn, searchedNodes, placedTiles, new Move(lastMoveRow, lastMoveCol))); // Save the current state to history
-            placedTiles++; // Increment the number of placed tiles
-            board.makeMove(row, col, isBlackTurn); // Make the move on the board
+        if (isAITurn() || aiSearch != null) {
+            return; // Clicks during the AI's turn are ignored
+        }
+        if (board.isValidMove(row, col, isBlackTurn)) { // Check if the move is valid
+            long flips = board.makeMove(row, col, isBlackTurn); // Make the move on the board
+            recordMove(row, col, flips, System.nanoTime() - turnStartTime, 0, 0); // Save the move to history
             lastMoveRow = row; // Record the last move row
             lastMoveCol = col; // Record the last move column
             isBlackTurn = !isBlackTurn; // Switch turns
-            ui.updateBoard(board.getState(), isBlackTurn, lastMoveRow, lastMoveCol); // Update the UI
-            ui.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
+            showBoard(lastMoveRow, lastMoveCol); // Update the UI
+            listener.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
 
             // Check if the next player can make a move
             if (!board.hasValidMoves(isBlackTurn)) {
@@ -65,60 +104,193 @@ public class GameEngine {
                 } else {
                     isBlackTurn = !isBlackTurn; // Skip the turn if the next player has no valid moves
                     if (gameMode != GameMode.AIvsAI) { // Only show message in human games
-                        ui.showErrorMessage("No valid moves available. Turn skipped.");
+                        listener.showErrorMessage("No valid moves available. Turn skipped.");
                     }
-                    ui.updateBoard(board.getState(), isBlackTurn, lastMoveRow, lastMoveCol); // Update the UI
+                    showBoard(lastMoveRow, lastMoveCol); // Update the UI
                 }
             }
 
-            ui.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
+            listener.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
 
             if (isAITurn()) { // If it's AI's turn, trigger the AI to make a move
                 makeAIMove();
+            } else if (!board.isGameOver()) {
+                startPondering(); // The AI passed, so the human moves again
             }
         }
     }
 
-    // Make a move for the AI player
+    // Make a move for the AI player (the search runs in the background and the result is applied on the event executor)
     private void makeAIMove() {
         AI currentAI = isBlackTurn ? blackAI : whiteAI; // Determine which AI is making the move
         if (currentAI != null) {
-            Move move = currentAI.findBestMove(board, isBlackTurn); // Find the best move using the AI
-            Timer timer = new Timer(100, _ -> { // Add a 100 ms delay for AI move
-                if (move != null) {
-                    gameHistory.add(new MoveHistory(board, isBlackTurn, searchedNodes, placedTiles, move)); // Save the current state to history
-                    placedTiles++; // Increment the number of placed tiles
-                    board.makeMove(move.row, move.col, isBlackTurn); // Make the move on the board
-                    lastMoveRow = move.row; // Record the last move row
-                    lastMoveCol = move.col; // Record the last move column
-                    isBlackTurn = !isBlackTurn; // Switch turns
-                    ui.updateBoard(board.getState(), isBlackTurn, lastMoveRow, lastMoveCol); // Update the UI
-                    ui.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
-
-                    // Check if the next player can make a move
-                    if (!board.hasValidMoves(isBlackTurn)) {
-                        if (!board.hasValidMoves(!isBlackTurn)) {
-                            endGame(); // End the game if neither player can move
-                        } else {
-                            isBlackTurn = !isBlackTurn; // Skip the turn if the next player has no valid moves
-                            if (gameMode != GameMode.AIvsAI) { // Only show message in human games
-                                ui.showErrorMessage("No valid moves available. Turn skipped.");
-                            }
-                            ui.updateBoard(board.getState(), isBlackTurn, lastMoveRow, lastMoveCol); // Update the UI
+            Board searchBoard = new Board(board); // The search works on its own copy of the board
+            boolean searchTurn = isBlackTurn;
+            int searchId = ++aiSearchId; // Identifies this search so stale results can be ignored
+            Future<Move> pondered = null;
+            if (ponderSearch != null && ponderKey != 0 && ponderKey == Zobrist.key(board.getBitBoard().hash, isBlackTurn)) {
+                currentAI.ponderHit(); // The human played the predicted move: the ponder search finishes this move
+                pondered = ponderSearch;
+                ponderKey = 0;
+            } else {
+                stopPondering(); // Wrong prediction: the search starts over, with the ponder results in the table
+            }
+            Future<Move> ponderResult = pondered;
+            aiSearch = searchExecutor.submit(() -> {
+                Move move = null;
+                try {
+                    move = ponderResult != null ? awaitPonder(ponderResult, currentAI, searchBoard, searchTurn, searchId)
+                            : currentAI.findBestMove(searchBoard, searchTurn); // Find the best move using the AI
+                } catch (RuntimeException e) {
+                    move = null; // The search failed: applyAIMove reports it and plays a fallback move
+                } finally { // Always report back, so a failed search does not leave the move pending
+                    Move found = move;
+                    SearchStats stats = currentAI.getLastStats();
+                    eventExecutor.execute(() -> {
+                        if (searchId == aiSearchId) { // Ignore results of cancelled searches
+                            aiSearch = null;
+                            applyAIMove(found, stats);
                         }
-                    }
+                    });
+                }
+            });
+        }
+    }
 
-                    ui.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
-                    if (isAITurn()) { // If it's AI's turn again, trigger the next move
-                        makeAIMove();
-                    }
+    // Apply the move found by the AI (null if the search failed)
+    private void applyAIMove(Move move, SearchStats stats) {
+        if (move == null) {
+            listener.showErrorMessage("The AI search failed. Playing the first valid move instead.");
+            move = board.getValidMoves(isBlackTurn).getFirst(); // Searching again would most likely fail the same way
+            stats = null; // The statistics are those of an earlier move
+        }
+        long flips = board.makeMove(move.row, move.col, isBlackTurn); // Make the move on the board
+        if (flips == 0) {
+            makeAIMove(); // Not a valid move in this position: drop it and search again
+            return;
+        }
+        if (stats != null) {
+            recordMove(move.row, move.col, flips, stats.nanos(), stats.nodes(), stats.depth()); // Save the move to history
+        } else {
+            recordMove(move.row, move.col, flips, System.nanoTime() - turnStartTime, 0, 0);
+        }
+        lastMoveRow = move.row; // Record the last move row
+        lastMoveCol = move.col; // Record the last move column
+        isBlackTurn = !isBlackTurn; // Switch turns
+        showBoard(lastMoveRow, lastMoveCol); // Update the UI
+        listener.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
+
+        // Check if the next player can make a move
+        if (!board.hasValidMoves(isBlackTurn)) {
+            if (!board.hasValidMoves(!isBlackTurn)) {
+                endGame(); // End the game if neither player can move
+            } else {
+                isBlackTurn = !isBlackTurn; // Skip the turn if the next player has no valid moves
+                if (gameMode != GameMode.AIvsAI) { // Only show message in human games
+                    listener.showErrorMessage("No valid moves available. Turn skipped.");
+                }
+                showBoard(lastMoveRow, lastMoveCol); // Update the UI
+            }
+        }
+
+        listener.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
+        if (isAITurn()) { // If it's AI's turn again, trigger the next move
+            makeAIMove();
+        } else if (!board.isGameOver()) {
+            startPondering();
+        }
+    }
+
+    // Send the position to the listener, with the valid moves of the side to move
+    private void showBoard(int lastMoveRow, int lastMoveCol) {
+        BitBoard position = board.getBitBoard();
+        listener.updateBoard(position.black, position.white, position.getMoves(isBlackTurn), isBlackTurn, lastMoveRow, lastMoveCol);
+    }
+
+    // Add a move just made to the history; the next turn starts now
+    private void recordMove(int row, int col, long flips, long nanos, long nodes, int depth) {
+        history.record(BitBoard.square(row, col), flips, isBlackTurn, nanos, nodes, depth);
+        placedTiles++; // Increment the number of placed tiles
+        turnStartTime = System.nanoTime();
+    }
+
+    // Cancel the AI search in progress, if any
+    private void cancelAISearch() {
+        aiSearchId++; // Any result still on its way is now stale
+        if (aiSearch != null) {
+            aiSearch.cancel(true); // Interrupting the search thread stops the AI
+            aiSearch = null;
+        }
+        stopPondering();
+    }
+
+    // Search on the human's time: the position after the reply the AI expects, or the human's own position if the
+    // AI has no prediction (which fills the shared table for every reply)
+    private void startPondering() {
+        stopPondering();
+        AI ai = isBlackTurn ? whiteAI : blackAI; // The AI waiting for the human
+        if (!ponderEnabled || gameMode != GameMode.HumanvsAI || ai == null) {
+            return;
+        }
+        Board ponderBoard = new Board(board);
+        boolean ponderTurn = isBlackTurn;
+        Move predicted = ai.predictMove(ponderBoard, isBlackTurn);
+        ponderKey = 0;
+        if (predicted != null) {
+            ponderBoard.makeMove(predicted.row, predicted.col, isBlackTurn);
+            if (ponderBoard.hasValidMoves(!isBlackTurn)) {
+                ponderTurn = !isBlackTurn;
+                ponderKey = Zobrist.key(ponderBoard.getBitBoard().hash, ponderTurn);
+            } else {
+                ponderBoard = new Board(board); // The AI would have to pass: ponder on the human's position instead
+            }
+        }
+        boolean turn = ponderTurn;
+        Board position = ponderBoard;
+        ai.startPondering();
+        ponderSearch = searchExecutor.submit(() -> ai.ponder(position, turn));
+    }
+
+    // Wait for a ponder search that became the real search (null if this search was cancelled)
+    private Move awaitPonder(Future<Move> ponder, AI ai, Board board, boolean isBlackTurn, int searchId) {
+        try {
+            return ponder.get();
+        } catch (InterruptedException e) {
+            return null; // Cancelled
+        } catch (CancellationException e) {
+            return ai.findBestMove(board, isBlackTurn); // Pondering was turned off, but the move is still needed
+        } catch (ExecutionException e) {
+            eventExecutor.execute(() -> {
+                if (searchId == aiSearchId) {
+                    listener.showErrorMessage("The AI's search on your time failed (" + e.getCause() + "). Searching again.");
                 }
             });
-            timer.setRepeats(false); // Ensure the timer only runs once
-            timer.start(); // Start the timer
+            return ai.findBestMove(board, isBlackTurn); // The ponder search failed, search again
         }
     }
 
+    // Cancel the ponder search, if any (its results stay in the AI's table)
+    private void stopPondering() {
+        if (ponderSearch != null) {
+            ponderSearch.cancel(true);
+            ponderSearch = null;
+        }
+        ponderKey = 0;
+    }
+
+    // Stop any running search and release the search threads (called when the window closes)
+    public void shutdown() {
+        cancelAISearch();
+        if (ownsSearchExecutor) {
+            searchExecutor.shutdownNow();
+        }
+    }
+
+    // Check if an AI search is running whose move has not been applied yet
+    public boolean isAIMovePending() {
+        return aiSearch != null;
+    }
+
     // Check if it's the AI's turn
     private boolean isAITurn() {
         return (gameMode == GameMode.AIvsAI) || // Both players are AI
@@ -126,19 +298,64 @@ public class GameEngine {
                         && ((isBlackTurn && blackAI != null) || (!isBlackTurn && whiteAI != null)));
     }
 
-    // Undo the last move
+    // Undo the last move (in Human vs AI, back to the human's last move, so the AI does not simply play its reply again)
     public void undoMove() {
-        if (!gameHistory.isEmpty()) {
-            MoveHistory lastState = gameHistory.removeLast(); // Get the last state from history
-            board = new Board(lastState.boardState); // Restore the board state
-            isBlackTurn = lastState.isBlackTurn; // Restore the turn
-            searchedNodes = lastState.searchedNodes; // Restore the number of searched nodes
-            placedTiles = lastState.gameDepth; // Restore the number of placed tiles
-            lastMoveRow = lastState.lastMove.row; // Restore the last move row
-            lastMoveCol = lastState.lastMove.col; // Restore the last move column
-            ui.updateBoard(board.getState(), isBlackTurn, -1, -1); // Update the UI
-            ui.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
+        int ply = history.getPly() - 1;
+        if (gameMode == GameMode.HumanvsAI) {
+            while (ply > 0 && (history.isBlackMove(ply) ? blackAI : whiteAI) != null) {
+                ply--; // The AI played this move
+            }
+        }
+        if (ply >= 0) {
+            seekToPly(ply);
+        }
+    }
+
+    // Play the last undone move again
+    public void redoMove() {
+        if (history.canRedo()) {
+            seekToPly(history.getPly() + 1);
+        }
+    }
+
+    // Show the position after the given number of moves, undoing or redoing moves on the board in place, and resume
+    // play from it (undo and redo come through here too)
+    public void seekToPly(int ply) {
+        cancelAISearch();
+        history.seek(board, ply);
+        placedTiles = 4 + history.getPly(); // Restore the number of placed tiles
+        turnStartTime = System.nanoTime();
+        if (history.getPly() > 0) {
+            int square = history.getSquare(history.getPly() - 1);
+            lastMoveRow = square / Board.BOARD_SIZE; // Restore the last move row
+            lastMoveCol = square % Board.BOARD_SIZE; // Restore the last move column
+        } else {
+            lastMoveRow = -1;
+            lastMoveCol = -1;
         }
+        if (history.canRedo()) {
+            isBlackTurn = history.isBlackMove(history.getPly()); // The side that played the next recorded move
+        } else {
+            isBlackTurn = history.getPly() == 0 || !history.isBlackMove(history.getPly() - 1);
+            if (!board.hasValidMoves(isBlackTurn) && board.hasValidMoves(!isBlackTurn)) {
+                isBlackTurn = !isBlackTurn; // Pass
+            }
+        }
+        showBoard(-1, -1); // Update the UI
+        listener.updateStatus(isBlackTurn ? "Black's turn" : "White's turn", getScore(), lastMoveRow, lastMoveCol); // Update the status message
+        if (board.isGameOver()) {
+            return;
+        }
+        if (isAITurn()) {
+            makeAIMove(); // The AI plays on from this position
+        } else {
+            startPondering(); // The human is to move: the AI thinks ahead again
+        }
+    }
+
+    // Get the number of nodes searched by the AIs for the moves on the board
+    public long getSearchedNodes() {
+        return history.getSearchedNodes();
     }
 
     // Get the current score as a formatted string
@@ -158,9 +375,8 @@ public class GameEngine {
         String winner = blackCount > whiteCount ? "Black" : whiteCount > blackCount ? "White" : "Tie"; // Determine the winner
         String player1 = getPlayerType(blackAI); // Get the type of black player
         String player2 = getPlayerType(whiteAI); // Get the type of white player
-        GameLogger.logGameResult(gameMode.name(), player1, player2, gameStartTime, searchedNodes, blackCount,
-                whiteCount, winner); // Log the game result
-        ui.showEndGameDialog(winner, blackCount, whiteCount); // Show the end game dialog
+        GameLogger.logGameResult(gameMode.name(), player1, player2, gameStartTime, history.getPlies(), blackCount, whiteCount); // Log the game result
+        listener.showEndGameDialog(winner, blackCount, whiteCount); // Show the end game dialog
     }
 
     // Get the type of player (AI or Human) based on the game mode
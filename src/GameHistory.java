@@ -0,0 +1,107 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// The moves of a game as a list of squares and flip masks, with undo, redo and seek applied to a board in place
+public class GameHistory {
+    public static final int MAX_PLIES = Board.BOARD_SIZE * Board.BOARD_SIZE - 4; // Every move fills one empty square
+
+    private final int[] squares = new int[MAX_PLIES]; // Square of each move (row * 8 + col)
+    private final long[] flips = new long[MAX_PLIES]; // Discs flipped by each move
+    private final boolean[] blackMoves = new boolean[MAX_PLIES]; // Side that played each move (passes are implied)
+    private final long[] nanos = new long[MAX_PLIES]; // Time taken by each move
+    private final long[] nodes = new long[MAX_PLIES]; // Nodes searched for each move (0 for human moves)
+    private final long[] totalNodes = new long[MAX_PLIES]; // Nodes searched up to and including each move
+    private final int[] depths = new int[MAX_PLIES]; // Completed search depth of each move (0 for human moves)
+    private int size; // Moves recorded, including undone moves that can be redone
+    private int current; // Moves currently applied to the board
+
+    // Forget all moves
+    public void clear() {
+        size = 0;
+        current = 0;
+    }
+
+    // Add a move that has just been made on the board; undone moves can no longer be redone
+    public void record(int square, long flips, boolean isBlackTurn, long nanos, long nodes, int depth) {
+        int ply = current;
+        squares[ply] = square;
+        this.flips[ply] = flips;
+        blackMoves[ply] = isBlackTurn;
+        this.nanos[ply] = nanos;
+        this.nodes[ply] = nodes;
+        totalNodes[ply] = (ply > 0 ? totalNodes[ply - 1] : 0) + nodes;
+        depths[ply] = depth;
+        current = ply + 1;
+        size = current;
+    }
+
+    // Number of moves applied to the board
+    public int getPly() {
+        return current;
+    }
+
+    // Number of moves recorded, including undone moves
+    public int size() {
+        return size;
+    }
+
+    // Check if there is a move to undo
+    public boolean canUndo() {
+        return current > 0;
+    }
+
+    // Check if there is an undone move to play again
+    public boolean canRedo() {
+        return current < size;
+    }
+
+    // Take back the last applied move
+    public void undo(Board board) {
+        current--;
+        int square = squares[current];
+        board.undoMove(square / Board.BOARD_SIZE, square % Board.BOARD_SIZE, flips[current], blackMoves[current]);
+    }
+
+    // Play the next undone move again
+    public void redo(Board board) {
+        int square = squares[current];
+        board.redoMove(square / Board.BOARD_SIZE, square % Board.BOARD_SIZE, flips[current], blackMoves[current]);
+        current++;
+    }
+
+    // Undo or redo until the given number of moves is applied (clamped to the recorded moves)
+    // Each step only applies a stored flip mask, so a seek across the whole game costs at most 60 mask updates
+    public void seek(Board board, int ply) {
+        ply = Math.max(0, Math.min(ply, size));
+        while (current > ply) {
+            undo(board);
+        }
+        while (current < ply) {
+            redo(board);
+        }
+    }
+
+    // Square of a recorded move
+    public int getSquare(int ply) {
+        return squares[ply];
+    }
+
+    // Side that played a recorded move
+    public boolean isBlackMove(int ply) {
+        return blackMoves[ply];
+    }
+
+    // Nodes searched for the applied moves
+    public long getSearchedNodes() {
+        return current > 0 ? totalNodes[current - 1] : 0;
+    }
+
+    // The applied moves with their time, nodes and depth, for the game record
+    public List<GameRecord.Ply> getPlies() {
+        List<GameRecord.Ply> plies = new ArrayList<>(current);
+        for (int ply = 0; ply < current; ply++) {
+            plies.add(new GameRecord.Ply(squares[ply], blackMoves[ply], nanos[ply], nodes[ply], depths[ply]));
+        }
+        return plies;
+    }
+}
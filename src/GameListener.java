@@ -0,0 +1,15 @@
+// Receives the changes of a game from a GameEngine: the Swing window, or a session of the game server
+public interface GameListener {
+    // The board changed: the discs of each side, the valid moves of the side to move, and the last move (-1,-1 if
+    // not shown)
+    void updateBoard(long black, long white, long validMoves, boolean isBlackTurn, int lastMoveRow, int lastMoveCol);
+
+    // The turn or the score changed
+    void updateStatus(String status, String score, int lastMoveRow, int lastMoveCol);
+
+    // A message for the players (for example a skipped turn)
+    void showErrorMessage(String message);
+
+    // The game is over
+    void showEndGameDialog(String winner, int blackCount, int whiteCount);
+}
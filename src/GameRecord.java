@@ -0,0 +1,112 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// A finished game: players, result and every move with the time and nodes spent on it
+public record GameRecord(long startTime, long durationMillis, String gameMode, String blackPlayer, String whitePlayer,
+                         int blackCount, int whiteCount, List<Ply> plies) {
+    private static final int WHITE_MOVE = 0x40; // Set in a move byte when white played the move
+
+    // One move: square (row * 8 + col), side, time taken (search time for an AI), nodes and completed depth
+    public record Ply(int square, boolean isBlack, long nanos, long nodes, int depth) {
+    }
+
+    // Winner of the game (Black, White, or Tie)
+    public String winner() {
+        return blackCount > whiteCount ? "Black" : whiteCount > blackCount ? "White" : "Tie";
+    }
+
+    // The squares played in order from the start position (passes are implied), as used by OpeningBookBuilder.addGame
+    public List<Integer> squares() {
+        List<Integer> squares = new ArrayList<>(plies.size());
+        for (Ply ply : plies) {
+            squares.add(ply.square());
+        }
+        return squares;
+    }
+
+    // The squares of the game in its canonical orientation: of the symmetries that keep the start position, the one
+    // that maps the first move to the lowest square, so games whose openings are mirror images list the same moves
+    public List<Integer> canonicalSquares() {
+        Board start = new Board();
+        start.initialize();
+        BitBoard position = start.getBitBoard();
+        int best = 0;
+        for (int symmetry = 1; symmetry < 8 && !plies.isEmpty(); symmetry++) {
+            if (BitBoard.transform(position.black, symmetry) == position.black
+                    && BitBoard.transform(position.white, symmetry) == position.white
+                    && BitBoard.transformSquare(plies.getFirst().square(), symmetry)
+                    < BitBoard.transformSquare(plies.getFirst().square(), best)) {
+                best = symmetry;
+            }
+        }
+        List<Integer> squares = new ArrayList<>(plies.size());
+        for (Ply ply : plies) {
+            squares.add(BitBoard.transformSquare(ply.square(), best));
+        }
+        return squares;
+    }
+
+    // Write the record: fixed fields, then one byte per move (square and side) followed by variable-length time and nodes
+    void write(DataOutput out) throws IOException {
+        out.writeLong(startTime);
+        writeVarLong(out, durationMillis);
+        out.writeUTF(gameMode);
+        out.writeUTF(blackPlayer);
+        out.writeUTF(whitePlayer);
+        out.writeByte(blackCount);
+        out.writeByte(whiteCount);
+        out.writeByte(plies.size());
+        for (Ply ply : plies) {
+            out.writeByte(ply.square() | (ply.isBlack() ? 0 : WHITE_MOVE));
+            out.writeByte(ply.depth());
+            writeVarLong(out, ply.nanos() / 1000); // Microseconds are precise enough
+            writeVarLong(out, ply.nodes());
+        }
+    }
+
+    // Read a record written by write
+    static GameRecord read(DataInput in) throws IOException {
+        long startTime = in.readLong();
+        long durationMillis = readVarLong(in);
+        String gameMode = in.readUTF();
+        String blackPlayer = in.readUTF();
+        String whitePlayer = in.readUTF();
+        int blackCount = in.readUnsignedByte();
+        int whiteCount = in.readUnsignedByte();
+        int count = in.readUnsignedByte();
+        List<Ply> plies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int move = in.readUnsignedByte();
+            int depth = in.readUnsignedByte();
+            long nanos = readVarLong(in) * 1000;
+            long nodes = readVarLong(in);
+            plies.add(new Ply(move & ~WHITE_MOVE, (move & WHITE_MOVE) == 0, nanos, nodes, depth));
+        }
+        return new GameRecord(startTime, durationMillis, gameMode, blackPlayer, whitePlayer, blackCount, whiteCount, plies);
+    }
+
+    // Write a non-negative value in 7-bit groups, low group first, with the top bit set on all but the last byte
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    // Read a value written by writeVarLong
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in game record");
+    }
+}
@@ -0,0 +1,190 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class GameRecordLog implements AutoCloseable {
+    public static final String DEFAULT_PATH = "game_logs/game_records.bin"; // Log written by the game
+    public static final long DEFAULT_MAX_BYTES = 16L << 20; // Size at which the log is rotated
+    public static final int DEFAULT_MAX_FILES = 5; // Rotated files kept (game_records.1.bin is the newest)
+    static final int MAGIC = 0x52564752; // File signature ("RVGR")
+    static final int VERSION = 1; // Format version, bumped when the layout changes
+    private static final int BATCH_SIZE = 256; // Records written per flush at most
+
+    private static GameRecordLog defaultLog; // Log shared by all games of the application (null until first used)
+
+    private final String path; // Current log file
+    private final long maxBytes; // Size at which the current file is rotated
+    private final int maxFiles; // Number of rotated files kept
+    private final LinkedBlockingQueue<GameRecord> queue = new LinkedBlockingQueue<>(); // Records waiting to be written
+    private final Thread writer; // Background thread that writes the queued records
+    private volatile boolean closed; // Set by close, the writer stops once the queue is empty
+    private DataOutputStream out; // Open log file (writer thread only)
+    private long size; // Bytes in the current log file (writer thread only)
+
+    // Constructor to start a log that rotates the file at maxBytes and keeps maxFiles older files
+    public GameRecordLog(String path, long maxBytes, int maxFiles) {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        writer = new Thread(this::writeLoop, "game-record-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // The application's log in the default location, flushed when the JVM exits
+    public static synchronized GameRecordLog getDefault() {
+        if (defaultLog == null) {
+            GameRecordLog log = new GameRecordLog(DEFAULT_PATH, DEFAULT_MAX_BYTES, DEFAULT_MAX_FILES);
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close));
+            defaultLog = log;
+        }
+        return defaultLog;
+    }
+
+    // Queue a record for writing (never blocks the caller)
+    public void append(GameRecord record) {
+        if (closed) {
+            throw new IllegalStateException("Game record log is closed");
+        }
+        queue.add(record);
+    }
+
+    // Write the queued records and stop the writer thread
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Writer thread: take whatever has been queued, write it as one batch and flush
+    private void writeLoop() {
+        List<GameRecord> batch = new ArrayList<>(BATCH_SIZE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream recordOut = new DataOutputStream(bytes);
+        try {
+            while (!closed || !queue.isEmpty()) {
+                GameRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                try {
+                    for (GameRecord record : batch) {
+                        bytes.reset();
+                        record.write(recordOut);
+                        if (out == null || size >= maxBytes) {
+                            rotate();
+                        }
+                        out.writeInt(bytes.size()); // Length prefix, so readers can detect a truncated last record
+                        bytes.writeTo(out);
+                        size += 4 + bytes.size();
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    e.printStackTrace(); // The batch is lost, later batches reopen the file
+                    closeFile();
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeFile();
+    }
+
+    // Open the log file, first moving a full file to path.1 and older files one number up
+    private void rotate() throws IOException {
+        File file = new File(path);
+        if (out == null && file.length() > 0 && file.length() < maxBytes) {
+            long complete = completeLength(file);
+            if (complete > 0) {
+                if (complete < file.length()) {
+                    try (RandomAccessFile truncated = new RandomAccessFile(file, "rw")) {
+                        truncated.setLength(complete); // Drop a record cut off by a crash or a failed write
+                    }
+                }
+                openFile(file, true); // Continue the existing file
+                return;
+            }
+            // Not a log of this version: rotate it away below
+        }
+        closeFile();
+        if (file.length() > 0) {
+            new File(rotatedPath(maxFiles)).delete();
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                new File(rotatedPath(i)).renameTo(new File(rotatedPath(i + 1)));
+            }
+            file.renameTo(new File(rotatedPath(1)));
+        }
+        openFile(file, false);
+    }
+
+    // Bytes of a log file up to the end of its last complete record (0 if it has no valid header)
+    private static long completeLength(File file) throws IOException {
+        long length = file.length();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (length < 8 || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return 0;
+            }
+            long end = 8;
+            while (end + 4 <= length) {
+                int recordLength = in.readInt();
+                if (recordLength < 0 || end + 4 + recordLength > length) {
+                    break; // The last record is incomplete
+                }
+                in.skipNBytes(recordLength);
+                end += 4 + recordLength;
+            }
+            return end;
+        }
+    }
+
+    // Open the log file for appending, writing the header to a new file
+    private void openFile(File file, boolean append) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, append)));
+        size = append ? file.length() : 0;
+        if (!append) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            size = 8;
+        }
+    }
+
+    // Close the log file, if open
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            out = null;
+        }
+    }
+
+    // Name of a rotated file: game_records.bin -> game_records.<index>.bin
+    private String rotatedPath(int index) {
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/') ? path.substring(0, dot) + "." + index + path.substring(dot) : path + "." + index;
+    }
+}
@@ -0,0 +1,92 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+public class GameRecordReader implements AutoCloseable {
+    private final DataInputStream in; // The log file, read sequentially
+
+    // Constructor to open a game record log (rotated files are read one at a time)
+    public GameRecordReader(String path) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)));
+        if (in.readInt() != GameRecordLog.MAGIC || in.readInt() != GameRecordLog.VERSION) {
+            in.close();
+            throw new IOException("Not a game record log: " + path);
+        }
+    }
+
+    // Read the next record, or null at the end of the file (a record cut off by a crash also ends the file)
+    public GameRecord read() throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        try {
+            in.readFully(bytes);
+        } catch (EOFException e) {
+            return null;
+        }
+        return GameRecord.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Print one line per game, and with --moves one line per move, followed by totals; --canonical lists the moves
+    // of every game in its canonical orientation (GameRecord.canonicalSquares)
+    // Usage: java GameRecordReader [--moves] [--canonical] <recordFile>...
+    public static void main(String[] args) throws IOException {
+        int first = 0;
+        boolean showMoves = false, canonical = false;
+        for (; first < args.length && args[first].startsWith("--"); first++) {
+            showMoves |= args[first].equals("--moves");
+            canonical |= args[first].equals("--canonical");
+        }
+        if (args.length <= first) {
+            System.out.println("Usage: java GameRecordReader [--moves] [--canonical] <recordFile>...");
+            return;
+        }
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        int games = 0, blackWins = 0, whiteWins = 0;
+        long moves = 0, nodes = 0, searchNanos = 0;
+        for (int i = first; i < args.length; i++) {
+            try (GameRecordReader reader = new GameRecordReader(args[i])) {
+                for (GameRecord game = reader.read(); game != null; game = reader.read()) {
+                    games++;
+                    blackWins += game.blackCount() > game.whiteCount() ? 1 : 0;
+                    whiteWins += game.whiteCount() > game.blackCount() ? 1 : 0;
+                    System.out.printf("%s  %-9s %-14s %2d - %2d %-14s %-5s %3d moves %6d s%n",
+                            dateFormat.format(new Date(game.startTime())), game.gameMode(), game.blackPlayer(),
+                            game.blackCount(), game.whiteCount(), game.whitePlayer(), game.winner(),
+                            game.plies().size(), game.durationMillis() / 1000);
+                    List<Integer> squares = canonical ? game.canonicalSquares() : game.squares();
+                    for (int p = 0; p < game.plies().size(); p++) {
+                        GameRecord.Ply ply = game.plies().get(p);
+                        int square = squares.get(p);
+                        moves++;
+                        nodes += ply.nodes();
+                        searchNanos += ply.nodes() > 0 ? ply.nanos() : 0;
+                        if (showMoves) {
+                            System.out.printf("    %-5s %d,%d  %8.1f ms %,13d nodes  depth %d%n", ply.isBlack() ? "Black" : "White",
+                                    square / Board.BOARD_SIZE, square % Board.BOARD_SIZE,
+                                    ply.nanos() / 1e6, ply.nodes(), ply.depth());
+                        }
+                    }
+                }
+            }
+        }
+        System.out.printf("%d games (black %d, white %d, ties %d), %d moves, %,d nodes, %,.0f nodes/s while searching%n",
+                games, blackWins, whiteWins, games - blackWins - whiteWins, moves, nodes,
+                nodes / Math.max(1e-9, searchNanos / 1e9));
+    }
+}
@@ -0,0 +1,287 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Serves many games at once over a line-based TCP protocol: every connection is a session on its own virtual
+// thread, and the AI searches of all sessions share one bounded SearchPool
+public class GameServer {
+    public static final int DEFAULT_PORT = 7777; // Port used when none is given
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024; // Searches that may wait for a search thread
+    public static final long DEFAULT_MOVE_TIME_MS = 1000; // Time budget of each AI move
+    private static final int SESSION_TABLE_MEGABYTES = 1; // Transposition table of each session AI
+    private static final long REPORT_INTERVAL_MS = 10_000; // Time between metric lines on the console
+
+    private final SearchPool searchPool; // Runs the AI searches of every session
+    private final long moveTimeMillis; // Time budget of each AI move
+    private final LatencyHistogram commandLatency = new LatencyHistogram(); // Response time of all commands
+    private final AtomicInteger activeSessions = new AtomicInteger(); // Connections currently open
+    private final AtomicLong totalSessions = new AtomicLong(); // Connections accepted since the start
+
+    // Constructor to create a server whose searches run on the given pool
+    public GameServer(SearchPool searchPool, long moveTimeMillis) {
+        this.searchPool = searchPool;
+        this.moveTimeMillis = moveTimeMillis;
+    }
+
+    // Accept connections until the process is stopped
+    // Usage: java GameServer [port] [searchThreads] [queueCapacity] [moveTimeMs]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int queueCapacity = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_QUEUE_CAPACITY;
+        long moveTime = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_MOVE_TIME_MS;
+
+        GameServer server = new GameServer(new SearchPool(threads, queueCapacity), moveTime);
+        System.out.printf("Reversi server on port %d: %d search threads, %d queued searches, %d ms per move%n",
+                port, threads, queueCapacity, moveTime);
+        server.serve(port);
+    }
+
+    // Accept connections on the port, starting a session for each one
+    public void serve(int port) throws IOException {
+        Thread reporter = Thread.ofPlatform().daemon().name("server-report").start(this::reportPeriodically);
+        try (ServerSocket serverSocket = new ServerSocket(port, 1024);
+             ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (!serverSocket.isClosed()) {
+                Socket socket = serverSocket.accept();
+                totalSessions.incrementAndGet();
+                sessions.execute(new Session(socket));
+            }
+        } finally {
+            reporter.interrupt();
+        }
+    }
+
+    // Print the server metrics at a fixed interval
+    private void reportPeriodically() {
+        try {
+            while (true) {
+                Thread.sleep(REPORT_INTERVAL_MS);
+                System.out.println(serverStats());
+            }
+        } catch (InterruptedException e) {
+            // Server stopped
+        }
+    }
+
+    // One-line summary of the sessions, command latency and search pool
+    public String serverStats() {
+        return String.format("sessions=%d/%d commands[%s] queue=%d running=%d blocked=%d wait[%s] search[%s]",
+                activeSessions.get(), totalSessions.get(), commandLatency.summary(), searchPool.queueLength(),
+                searchPool.activeCount(), searchPool.blockedCount(), searchPool.getQueueWait().summary(),
+                searchPool.getRunTime().summary());
+    }
+
+    // One connection: reads commands, runs them on its game and answers with the changes, then "ok <ms>" or
+    // "error <message>". The engine reports AI moves through the session's queue, so all game state is handled
+    // on the session's thread. Commands:
+    //   new <human|DIFFICULTY> <human|DIFFICULTY>   start a game (black, white); AI moves are played at once
+    //   move <row> <col>                             play a move for the human side to move
+    //   undo | redo | seek <ply>                     move through the game history
+    //   board | stats | quit
+    // Answer lines: board <64 squares .bw> <b|w to move> <lastRow> <lastCol>, status <turn>; <score>,
+    // message <text>, end <winner> <black> <white>, stats <session and server metrics>
+    private class Session implements Runnable, GameListener {
+        private final Socket socket; // The client connection
+        private final BlockingQueue<Runnable> events = new LinkedBlockingQueue<>(); // AI results to apply
+        private final LatencyHistogram latency = new LatencyHistogram(); // Response time of this session's commands
+        private final List<String> output = new ArrayList<>(); // Message lines of the command being answered
+        private GameEngine engine; // Current game (null before the first "new")
+        private boolean blackIsHuman; // Black's moves come from the client
+        private boolean whiteIsHuman; // White's moves come from the client
+        private long validMoves; // Valid moves of the side to move on the latest board
+        private boolean isBlackTurn; // Side to move on the latest board
+        private String boardLine; // Latest board answer line
+        private String statusLine; // Latest status answer line
+        private boolean boardChanged; // The board or status changed while running the current command
+
+        Session(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            activeSessions.incrementAndGet();
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    long start = System.nanoTime();
+                    boolean open = true;
+                    String result;
+                    try {
+                        open = handle(line.trim());
+                        result = "ok";
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        result = "error " + e.getMessage();
+                    }
+                    flush(out, result, start);
+                    if (!open) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                // Connection closed by the client
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (engine != null) {
+                    engine.shutdown();
+                }
+                activeSessions.decrementAndGet();
+            }
+        }
+
+        // Run one command and wait for the AI moves it triggers; false if the session should end
+        private boolean handle(String line) throws InterruptedException {
+            runEvents(); // Results of searches cancelled by an earlier command
+            String[] words = line.split("\\s+");
+            switch (words[0].toLowerCase()) {
+                case "new" -> newGame(words);
+                case "move" -> move(words);
+                case "undo" -> requireGame().undoMove();
+                case "redo" -> requireGame().redoMove();
+                case "seek" -> requireGame().seekToPly(Integer.parseInt(argument(words, 1)));
+                case "board" -> boardChanged = engine != null;
+                case "stats" -> output.add("stats session commands[" + latency.summary() + "] server " + serverStats());
+                case "quit" -> {
+                    return false;
+                }
+                case "" -> {
+                }
+                default -> throw new IllegalArgumentException("unknown command " + words[0]);
+            }
+            while (engine != null && engine.isAIMovePending()) {
+                events.take().run(); // Apply the AI move, which may start the next search
+            }
+            return true;
+        }
+
+        // Start a new game, replacing the current one
+        private void newGame(String[] words) {
+            AIDifficulty black = difficulty(argument(words, 1));
+            AIDifficulty white = difficulty(argument(words, 2));
+            if (engine != null) {
+                engine.shutdown();
+            }
+            GameMode gameMode = black == null && white == null ? GameMode.HumanvsHuman
+                    : black != null && white != null ? GameMode.AIvsAI : GameMode.HumanvsAI;
+            blackIsHuman = black == null;
+            whiteIsHuman = white == null;
+            engine = new GameEngine(this, events::add, searchPool, gameMode, createAI(black), createAI(white));
+            engine.setPondering(false); // Searches on the client's time would take pool threads from other sessions
+            engine.startGame();
+        }
+
+        // Play the client's move, if it is the client's turn and the move is valid
+        private void move(String[] words) {
+            GameEngine game = requireGame();
+            int row = Integer.parseInt(argument(words, 1));
+            int col = Integer.parseInt(argument(words, 2));
+            boolean onBoard = row >= 0 && row < Board.BOARD_SIZE && col >= 0 && col < Board.BOARD_SIZE;
+            if (!onBoard || !(isBlackTurn ? blackIsHuman : whiteIsHuman) || (validMoves & 1L << BitBoard.square(row, col)) == 0) {
+                throw new IllegalArgumentException("invalid move " + row + " " + col);
+            }
+            game.makePlayerMove(row, col);
+        }
+
+        // Create the AI for one side (null for a human side)
+        private AI createAI(AIDifficulty difficulty) {
+            if (difficulty == null) {
+                return null;
+            }
+            AI ai = new AI(difficulty, new TranspositionTable(SESSION_TABLE_MEGABYTES, ReplacementPolicy.DEPTH_PREFERRED));
+            ai.setTimeLimit(moveTimeMillis);
+            return ai;
+        }
+
+        // Parse a player: "human" or an AI difficulty
+        private static AIDifficulty difficulty(String name) {
+            return name.equalsIgnoreCase("human") ? null : AIDifficulty.valueOf(name.toUpperCase());
+        }
+
+        // Get a command argument
+        private static String argument(String[] words, int index) {
+            if (index >= words.length) {
+                throw new IllegalArgumentException("missing argument for " + words[0]);
+            }
+            return words[index];
+        }
+
+        // Get the current game
+        private GameEngine requireGame() {
+            if (engine == null) {
+                throw new IllegalStateException("no game, start one with new");
+            }
+            return engine;
+        }
+
+        // Apply the queued engine events without waiting
+        private void runEvents() {
+            for (Runnable event; (event = events.poll()) != null; ) {
+                event.run();
+            }
+        }
+
+        // Send the answer to one command and record its response time
+        private void flush(Writer out, String result, long start) throws IOException {
+            if (boardChanged) {
+                out.write(boardLine + "\n" + statusLine + "\n");
+                boardChanged = false;
+            }
+            for (String line : output) {
+                out.write(line + "\n");
+            }
+            output.clear();
+            long nanos = System.nanoTime() - start;
+            out.write(result + String.format(" %.1f", nanos / 1e6) + "\n");
+            out.flush();
+            latency.record(nanos);
+            commandLatency.record(nanos);
+        }
+
+        @Override
+        public void updateBoard(long black, long white, long validMoves, boolean isBlackTurn, int lastMoveRow, int lastMoveCol) {
+            this.validMoves = validMoves;
+            this.isBlackTurn = isBlackTurn;
+            StringBuilder squares = new StringBuilder(Board.BOARD_SIZE * Board.BOARD_SIZE);
+            for (int square = 0; square < Board.BOARD_SIZE * Board.BOARD_SIZE; square++) {
+                long bit = 1L << square;
+                squares.append((black & bit) != 0 ? 'b' : (white & bit) != 0 ? 'w' : '.');
+            }
+            boardLine = "board " + squares + " " + (isBlackTurn ? "b" : "w") + " " + lastMoveRow + " " + lastMoveCol;
+            boardChanged = true;
+        }
+
+        @Override
+        public void updateStatus(String status, String score, int lastMoveRow, int lastMoveCol) {
+            statusLine = "status " + status + "; " + score;
+            boardChanged = true;
+        }
+
+        @Override
+        public void showErrorMessage(String message) {
+            output.add("message " + message);
+        }
+
+        @Override
+        public void showEndGameDialog(String winner, int blackCount, int whiteCount) {
+            output.add("end " + winner + " " + blackCount + " " + whiteCount);
+        }
+    }
+}
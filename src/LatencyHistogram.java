@@ -0,0 +1,62 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free histogram of durations in power-of-two microsecond buckets, cheap enough to record every request
+public class LatencyHistogram {
+    private static final int BUCKETS = 40; // Bucket i holds durations below 2^i microseconds (the last one the rest)
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS); // Number of durations in each bucket
+    private final LongAdder count = new LongAdder(); // Number of recorded durations
+    private final LongAdder totalNanos = new LongAdder(); // Sum of the recorded durations
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0); // Longest recorded duration
+
+    // Record one duration
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    // Number of recorded durations
+    public long count() {
+        return count.sum();
+    }
+
+    // Mean duration in milliseconds
+    public double meanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+    }
+
+    // Longest duration in milliseconds
+    public double maxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    // Upper bound in milliseconds of the bucket holding the given fraction of durations (0.5 for the median)
+    public double percentileMillis(double fraction) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * n);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min((1L << bucket) / 1000.0, maxMillis());
+            }
+        }
+        return maxMillis();
+    }
+
+    // One-line summary: count, mean, median, 99th percentile and maximum
+    public String summary() {
+        return String.format("n=%d mean=%.1fms p50<=%.1fms p99<=%.1fms max=%.1fms",
+                count(), meanMillis(), percentileMillis(0.5), percentileMillis(0.99), maxMillis());
+    }
+}
@@ -0,0 +1,93 @@
+public class MoveOrderer {
+    public static final int MAX_PLY = 64; // Deepest ply the search can reach (at most one move per square)
+
+    // Static priority of each square: corners first, edges next, X- and C-squares last
+    private static final int[] SQUARE_PRIOR = {
+            9, 1, 7, 6, 6, 7, 1, 9,
+            1, 0, 3, 3, 3, 3, 0, 1,
+            7, 3, 5, 4, 4, 5, 3, 7,
+            6, 3, 4, 4, 4, 4, 3, 6,
+            6, 3, 4, 4, 4, 4, 3, 6,
+            7, 3, 5, 4, 4, 5, 3, 7,
+            1, 0, 3, 3, 3, 3, 0, 1,
+            9, 1, 7, 6, 6, 7, 1, 9
+    };
+    private static final int TT_MOVE_SCORE = 1 << 30; // Transposition table or previous iteration move
+    private static final int KILLER_SCORE = 1 << 28; // First killer (the second killer gets half)
+    private static final int HISTORY_LIMIT = 1 << 20; // History values are halved when one passes this
+
+    public final int[][] moves = new int[MAX_PLY][64]; // Ordered moves for each ply
+    private final int[][] scores = new int[MAX_PLY][64]; // Ordering score of each move for each ply
+    private final int[][] killers = new int[MAX_PLY][2]; // Two most recent cutoff moves for each ply
+    private final int[][] history = new int[2][64]; // Cutoff history per side and square
+
+    // Constructor to create an orderer with empty killer and history tables
+    public MoveOrderer() {
+        clearKillers();
+    }
+
+    // Prepare for a new search: forget killers and age the history table
+    public void newSearch() {
+        clearKillers();
+        for (int[] side : history) {
+            for (int square = 0; square < 64; square++) {
+                side[square] >>= 1;
+            }
+        }
+    }
+
+    // Reset the killer moves of every ply
+    private void clearKillers() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = TranspositionTable.NO_MOVE;
+            plyKillers[1] = TranspositionTable.NO_MOVE;
+        }
+    }
+
+    // Fill moves[ply] with the move mask in search order and return the number of moves
+    public int orderMoves(long moveMask, int ply, int ttMove, boolean isBlackTurn) {
+        int[] plyMoves = moves[ply];
+        int[] plyScores = scores[ply];
+        int[] sideHistory = history[isBlackTurn ? 0 : 1];
+        int count = 0;
+        for (; moveMask != 0; moveMask &= moveMask - 1) {
+            int square = Long.numberOfTrailingZeros(moveMask);
+            int score;
+            if (square == ttMove) {
+                score = TT_MOVE_SCORE;
+            } else if (square == killers[ply][0]) {
+                score = KILLER_SCORE;
+            } else if (square == killers[ply][1]) {
+                score = KILLER_SCORE >> 1;
+            } else {
+                score = (sideHistory[square] << 4) + SQUARE_PRIOR[square]; // History first, square prior breaks ties
+            }
+
+            // Insertion sort by descending score
+            int i = count++;
+            while (i > 0 && plyScores[i - 1] < score) {
+                plyMoves[i] = plyMoves[i - 1];
+                plyScores[i] = plyScores[i - 1];
+                i--;
+            }
+            plyMoves[i] = square;
+            plyScores[i] = score;
+        }
+        return count;
+    }
+
+    // Record a move that caused a beta cutoff
+    public void recordCutoff(int square, int ply, int depth, boolean isBlackTurn) {
+        if (killers[ply][0] != square) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = square;
+        }
+        int[] sideHistory = history[isBlackTurn ? 0 : 1];
+        sideHistory[square] += depth * depth;
+        if (sideHistory[square] > HISTORY_LIMIT) {
+            for (int i = 0; i < 64; i++) {
+                sideHistory[i] >>= 1; // Keep history scores below the killer scores
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OpeningBook {
+    public static final String DEFAULT_PATH = "book/opening.book"; // Book read by AI at startup
+    public static final int SCORE_SCALE = 100; // Stored score units per disc
+    public static final int MIN_VISITS = 3; // Games a move must have been played in before the book plays it
+    private static final int MAGIC = 0x5256424B; // File signature ("RVBK")
+    private static final int VERSION = 2; // Format version, bumped when the layout changes (2: canonical keys)
+    private static final int HEADER_BYTES = 16; // Magic, version, entry count, reserved
+    private static final int ENTRY_BYTES = 16; // Key (8), visits (4), score (2), move (1), reserved (1)
+
+    private static boolean startupLoaded; // Set once the startup book has been looked for
+    private static OpeningBook startupBook; // Book shared by all AIs (null if there is none)
+
+    private final MappedByteBuffer buffer; // The whole file, mapped read-only
+    private final int entries; // Number of entries, sorted by key and then move
+
+    // A book move: canonical position key (BitBoard.canonicalKey), square in the canonical orientation, games played
+    // and mean final disc difference for the mover
+    public record Entry(long key, int move, int visits, int score) {
+    }
+
+    // Constructor to map a book file
+    private OpeningBook(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an opening book");
+        }
+        this.buffer = buffer;
+        this.entries = buffer.getInt(8);
+        if ((long) HEADER_BYTES + (long) entries * ENTRY_BYTES > buffer.capacity()) {
+            throw new IOException("Opening book is truncated");
+        }
+    }
+
+    // Map a book file into memory
+    public static OpeningBook open(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())); // The mapping outlives the channel
+        }
+    }
+
+    // Book used by AIs at startup (null if the default file does not exist or cannot be read)
+    public static synchronized OpeningBook startupBook() {
+        if (!startupLoaded) {
+            startupLoaded = true;
+            if (new File(DEFAULT_PATH).isFile()) {
+                try {
+                    startupBook = open(DEFAULT_PATH);
+                } catch (IOException e) {
+                    e.printStackTrace(); // Play without a book
+                }
+            }
+        }
+        return startupBook;
+    }
+
+    // Number of entries in the book
+    public int size() {
+        return entries;
+    }
+
+    // Find the best-scoring book move of a position, or NO_MOVE if the book has none; every symmetric variant of
+    // the position shares one set of entries, stored in the canonical orientation
+    public int probe(BitBoard position, boolean isBlackTurn) {
+        int symmetry = position.canonicalSymmetry();
+        long key = position.symmetricKey(symmetry, isBlackTurn);
+        long validMoves = BitBoard.transform(position.getMoves(isBlackTurn), symmetry);
+        int bestMove = TranspositionTable.NO_MOVE;
+        int bestScore = Integer.MIN_VALUE;
+        int bestVisits = 0;
+        for (int i = firstEntry(key); i < entries && keyAt(i) == key; i++) {
+            int offset = HEADER_BYTES + i * ENTRY_BYTES;
+            int visits = buffer.getInt(offset + 8);
+            int score = buffer.getShort(offset + 12);
+            int move = buffer.get(offset + 14);
+            if (visits >= MIN_VISITS && (validMoves & (1L << move)) != 0 // A key collision cannot play an illegal move
+                    && (score > bestScore || (score == bestScore && visits > bestVisits))) {
+                bestMove = move;
+                bestScore = score;
+                bestVisits = visits;
+            }
+        }
+        return bestMove == TranspositionTable.NO_MOVE ? bestMove
+                : BitBoard.transformSquare(bestMove, BitBoard.inverseSymmetry(symmetry)); // Back to the real board
+    }
+
+    // Binary search for the first entry whose key is not below the given key
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keyAt(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Key of the entry at an index
+    private long keyAt(int index) {
+        return buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    // Every entry of the book, in file order
+    public List<Entry> entries() {
+        List<Entry> result = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            int offset = HEADER_BYTES + i * ENTRY_BYTES;
+            result.add(new Entry(buffer.getLong(offset), buffer.get(offset + 14), buffer.getInt(offset + 8), buffer.getShort(offset + 12)));
+        }
+        return result;
+    }
+
+    // Write a book file from entries sorted by key and then move, creating its directory if needed
+    public static void write(String path, List<Entry> sortedEntries) throws IOException {
+        File parent = new File(path).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sortedEntries.size());
+            out.writeInt(0);
+            for (Entry entry : sortedEntries) {
+                out.writeLong(entry.key());
+                out.writeInt(entry.visits());
+                out.writeShort(entry.score());
+                out.writeByte(entry.move());
+                out.writeByte(0);
+            }
+        }
+    }
+}
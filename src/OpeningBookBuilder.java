@@ -0,0 +1,190 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class OpeningBookBuilder {
+    private static final int DEFAULT_BOOK_PLIES = 12; // Plies from the start position that are recorded in the book
+    private static final double EXPLORE_RATE = 0.2; // Share of book-range moves played at random to widen the book
+    private static final long MOVE_NODES = 50_000; // Node budget of each self-play move
+    private static final int TABLE_MEGABYTES = 4; // Transposition table size of each self-play AI
+
+    private final int bookPlies; // Plies from the start position that are recorded
+    private final Map<Long, Map<Integer, long[]>> statistics = new TreeMap<>(); // Canonical key -> move -> {visits, score sum}
+
+    // Constructor to create a builder recording the given number of plies
+    public OpeningBookBuilder(int bookPlies) {
+        this.bookPlies = bookPlies;
+    }
+
+    // Grow an opening book from self-play games, or from the games in game record logs
+    // Usage: java OpeningBookBuilder <games> [bookFile] [plies] [threads] [seed]
+    //        java OpeningBookBuilder records <recordFile>[,<recordFile>...] [bookFile] [plies]
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: java OpeningBookBuilder <games> [bookFile] [plies] [threads] [seed]");
+            System.out.println("       java OpeningBookBuilder records <recordFile>[,<recordFile>...] [bookFile] [plies]");
+            return;
+        }
+        if (args[0].equals("records")) {
+            addRecords(args);
+            return;
+        }
+        int games = Integer.parseInt(args[0]);
+        String path = args.length > 1 ? args[1] : OpeningBook.DEFAULT_PATH;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BOOK_PLIES;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.currentTimeMillis();
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        if (new File(path).isFile()) {
+            builder.addBook(OpeningBook.open(path)); // Grow the existing book
+        }
+        System.out.printf("Playing %d games on %d threads, seed %d, recording %d plies%n", games, threads, seed, plies);
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            long gameSeed = seed + game;
+            futures.add(pool.submit(() -> builder.playGame(gameSeed)));
+        }
+        for (Future<List<Integer>> future : futures) {
+            try {
+                builder.addGame(future.get());
+            } catch (ExecutionException e) {
+                e.printStackTrace(); // A failed game is left out of the book
+            }
+        }
+        pool.shutdown();
+
+        List<OpeningBook.Entry> entries = builder.entries();
+        OpeningBook.write(path, entries);
+        System.out.printf("Wrote %,d entries for %,d positions to %s in %.1f s%n",
+                entries.size(), builder.statistics.size(), path, (System.nanoTime() - start) / 1e9);
+        System.exit(0); // Stop the helper pool threads
+    }
+
+    // Add the finished games of game record logs to a book
+    private static void addRecords(String[] args) throws IOException {
+        String path = args.length > 2 ? args[2] : OpeningBook.DEFAULT_PATH;
+        int plies = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_BOOK_PLIES;
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        if (new File(path).isFile()) {
+            builder.addBook(OpeningBook.open(path)); // Grow the existing book
+        }
+        int games = 0;
+        for (String recordFile : args[1].split(",")) {
+            try (GameRecordReader reader = new GameRecordReader(recordFile)) {
+                for (GameRecord game = reader.read(); game != null; game = reader.read()) {
+                    builder.addGame(game.squares());
+                    games++;
+                }
+            }
+        }
+        List<OpeningBook.Entry> entries = builder.entries();
+        OpeningBook.write(path, entries);
+        System.out.printf("Added %,d games, wrote %,d entries for %,d positions to %s%n",
+                games, entries.size(), builder.statistics.size(), path);
+    }
+
+    // Play one self-play game, with some random moves inside the book range, and return its squares in order
+    private List<Integer> playGame(long seed) {
+        Random random = new Random(seed);
+        AI ai = new AI(AIDifficulty.PATTERN);
+        ai.setOpeningBook(null); // Build from fresh searches, not from the book being replaced
+        ai.setTranspositionTable(new TranspositionTable(TABLE_MEGABYTES, ReplacementPolicy.DEPTH_PREFERRED));
+        ai.setTimeLimit(0);
+        ai.setNodeLimit(MOVE_NODES);
+
+        Board board = new Board();
+        board.initialize();
+        boolean isBlackTurn = true;
+        List<Integer> squares = new ArrayList<>();
+        while (!board.isGameOver()) {
+            if (!board.hasValidMoves(isBlackTurn)) {
+                isBlackTurn = !isBlackTurn; // Pass
+                continue;
+            }
+            Move move;
+            if (squares.size() < bookPlies && random.nextDouble() < EXPLORE_RATE) {
+                List<Move> moves = board.getValidMoves(isBlackTurn);
+                move = moves.get(random.nextInt(moves.size()));
+            } else {
+                move = ai.findBestMove(board, isBlackTurn);
+            }
+            board.makeMove(move.row, move.col, isBlackTurn);
+            squares.add(BitBoard.square(move.row, move.col));
+            isBlackTurn = !isBlackTurn;
+        }
+        return squares;
+    }
+
+    // Record a finished game given as its squares in order from the start position (passes are implied)
+    public void addGame(List<Integer> squares) {
+        Board start = new Board();
+        start.initialize();
+        BitBoard board = new BitBoard(start.getBitBoard());
+        boolean isBlackTurn = true;
+        long[] keys = new long[Math.min(bookPlies, squares.size())];
+        int[] moves = new int[keys.length];
+        boolean[] blackMoved = new boolean[keys.length];
+        for (int ply = 0; ply < squares.size(); ply++) {
+            if (!board.hasMoves(isBlackTurn)) {
+                isBlackTurn = !isBlackTurn; // Pass
+            }
+            int square = squares.get(ply);
+            if (!board.isValidMove(square, isBlackTurn)) {
+                return; // Not a legal game, leave it out
+            }
+            if (ply < keys.length) {
+                int symmetry = board.canonicalSymmetry(); // Symmetric openings are counted as one position
+                keys[ply] = board.symmetricKey(symmetry, isBlackTurn);
+                moves[ply] = BitBoard.transformSquare(square, symmetry);
+                blackMoved[ply] = isBlackTurn;
+            }
+            board.makeMove(square, isBlackTurn);
+            isBlackTurn = !isBlackTurn;
+        }
+        if (!board.isGameOver()) {
+            return; // Unfinished games have no result
+        }
+
+        int blackScore = board.countBlack() - board.countWhite();
+        for (int ply = 0; ply < keys.length; ply++) {
+            long[] stats = statistics.computeIfAbsent(keys[ply], k -> new TreeMap<>())
+                    .computeIfAbsent(moves[ply], k -> new long[2]);
+            stats[0]++;
+            stats[1] += (long) (blackMoved[ply] ? blackScore : -blackScore) * OpeningBook.SCORE_SCALE;
+        }
+    }
+
+    // Add the entries of an existing book, so new games are counted on top of it
+    public void addBook(OpeningBook book) {
+        for (OpeningBook.Entry entry : book.entries()) {
+            long[] stats = statistics.computeIfAbsent(entry.key(), k -> new TreeMap<>())
+                    .computeIfAbsent(entry.move(), k -> new long[2]);
+            stats[0] += entry.visits();
+            stats[1] += (long) entry.score() * entry.visits();
+        }
+    }
+
+    // The recorded moves as book entries, sorted by key and then move
+    public List<OpeningBook.Entry> entries() {
+        List<OpeningBook.Entry> entries = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, long[]>> position : statistics.entrySet()) {
+            for (Map.Entry<Integer, long[]> move : position.getValue().entrySet()) {
+                long[] stats = move.getValue();
+                entries.add(new OpeningBook.Entry(position.getKey(), move.getKey(), (int) stats[0],
+                        (int) Math.round((double) stats[1] / stats[0])));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,230 @@
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class PatternEvaluator {
+    public static final int PHASES = 6; // Separate weight sets, one for every 10 moves of the game
+    public static final int DISC = 16; // Evaluation units worth one disc
+
+    // Pattern masks in one orientation; each pattern is looked up in all 8 orientations of the board
+    public static final long[] PATTERNS = {
+            0x00000000000042ffL, // Edge plus the two X-squares
+            0x0000000000001f1fL, // 2x5 corner block
+            0x0000000000070707L, // 3x3 corner block
+            0x8040201008040201L, // Main diagonal
+            0x0080402010080402L, // Diagonal of 7 squares
+            0x0000804020100804L, // Diagonal of 6 squares
+            0x0000008040201008L, // Diagonal of 5 squares
+            0x0000000080402010L, // Diagonal of 4 squares
+            0x000000000000ff00L, // Second row
+            0x0000000000ff0000L, // Third row
+            0x00000000ff000000L  // Fourth row
+    };
+    public static final String[] PATTERN_NAMES = {
+            "edge+2x", "corner2x5", "corner3x3", "diagonal8", "diagonal7", "diagonal6", "diagonal5", "diagonal4",
+            "row2", "row3", "row4"
+    };
+
+    // Classic square values used to seed the default tables (X- and C-squares are judged against their corner)
+    private static final int[][] SQUARE_VALUES = {
+            {20, -3, 2, 2, 2, 2, -3, 20},
+            {-3, -7, -1, -1, -1, -1, -7, -3},
+            {2, -1, 1, 0, 0, 1, -1, 2},
+            {2, -1, 0, 1, 1, 0, -1, 2},
+            {2, -1, 0, 1, 1, 0, -1, 2},
+            {2, -1, 1, 0, 0, 1, -1, 2},
+            {-3, -7, -1, -1, -1, -1, -7, -3},
+            {20, -3, 2, 2, 2, 2, -3, 20}
+    };
+    private static final int[] TERNARY = new int[1 << 10]; // Base-3 value of a mask of binary digits
+    private static final int[][] LOOKUPS = new int[8][]; // Patterns read in each orientation (each set of squares is read once)
+    private static PatternEvaluator defaultEvaluator; // Shared evaluator with the seeded tables
+
+    static {
+        for (int bits = 0; bits < TERNARY.length; bits++) {
+            int value = 0;
+            for (int digit = 9; digit >= 0; digit--) {
+                value = value * 3 + ((bits >>> digit) & 1);
+            }
+            TERNARY[bits] = value;
+        }
+        // Symmetric patterns (an edge read backwards, the main diagonal) are looked up once per set of squares
+        Set<Long> seen = new HashSet<>();
+        for (int symmetry = 0; symmetry < 8; symmetry++) {
+            int[] patterns = new int[PATTERNS.length];
+            int count = 0;
+            for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+                if (seen.add(coveredSquares(PATTERNS[pattern], symmetry))) {
+                    patterns[count++] = pattern;
+                }
+            }
+            LOOKUPS[symmetry] = Arrays.copyOf(patterns, count);
+        }
+    }
+
+    final int[][][] weights; // Score of every pattern configuration [phase][pattern][base-3 index]
+    final int[] mobilityWeights; // Score of one move of mobility difference [phase]
+
+    // Constructor to create an evaluator from its tables
+    PatternEvaluator(int[][][] weights, int[] mobilityWeights) {
+        this.weights = weights;
+        this.mobilityWeights = mobilityWeights;
+    }
+
+    // Get the shared evaluator with tables seeded from square values (built on first use)
+    public static synchronized PatternEvaluator getDefault() {
+        if (defaultEvaluator == null) {
+            defaultEvaluator = createSeeded();
+        }
+        return defaultEvaluator;
+    }
+
+    // Weight set used for a position with the given number of empty squares
+    public static int phase(int empties) {
+        return Math.min(PHASES - 1, Math.max(0, (60 - empties) / 10));
+    }
+
+    // Number of configurations of a pattern (3 states per square)
+    public static int tableSize(int pattern) {
+        int size = 1;
+        for (int i = Long.bitCount(PATTERNS[pattern]); i > 0; i--) {
+            size *= 3;
+        }
+        return size;
+    }
+
+    // Base-3 index of a pattern on a position: each square is a digit (0 empty, 1 black, 2 white), lowest square first
+    public static int index(long black, long white, long pattern) {
+        return TERNARY[(int) Long.compress(black, pattern)] + 2 * TERNARY[(int) Long.compress(white, pattern)];
+    }
+
+    // Evaluate a position from black's point of view
+    public int evaluate(long black, long white) {
+        int phase = phase(64 - Long.bitCount(black | white));
+        int[][] tables = weights[phase];
+        int score = BitBoard.mobilityDifference(black, white) * mobilityWeights[phase];
+        for (int symmetry = 0; symmetry < 8; symmetry++) {
+            // Step through the 8 orientations, one mirror at a time
+            if ((symmetry & 1) != 0) {
+                black = BitBoard.mirrorHorizontal(black);
+                white = BitBoard.mirrorHorizontal(white);
+            } else if (symmetry == 2 || symmetry == 6) {
+                black = BitBoard.flipVertical(black);
+                white = BitBoard.flipVertical(white);
+            } else if (symmetry == 4) {
+                black = BitBoard.flipDiagonal(black);
+                white = BitBoard.flipDiagonal(white);
+            }
+            for (int pattern : LOOKUPS[symmetry]) {
+                score += tables[pattern][index(black, white, PATTERNS[pattern])];
+            }
+        }
+        return score;
+    }
+
+    // Record the pattern and index of every table lookup evaluate makes, returning the number of lookups (for the tuner)
+    static int lookups(long black, long white, int[] patterns, int[] indexes) {
+        int count = 0;
+        for (int symmetry = 0; symmetry < 8; symmetry++) {
+            long orientedBlack = orient(black, symmetry);
+            long orientedWhite = orient(white, symmetry);
+            for (int pattern : LOOKUPS[symmetry]) {
+                patterns[count] = pattern;
+                indexes[count++] = index(orientedBlack, orientedWhite, PATTERNS[pattern]);
+            }
+        }
+        return count;
+    }
+
+    // Build tables that add up to a phase-dependent square-value evaluation
+    private static PatternEvaluator createSeeded() {
+        // Number of pattern lookups covering each square, so every square counts once in total
+        int[] coverage = new int[64];
+        for (int symmetry = 0; symmetry < 8; symmetry++) {
+            for (int pattern : LOOKUPS[symmetry]) {
+                for (long squares = coveredSquares(PATTERNS[pattern], symmetry); squares != 0; squares &= squares - 1) {
+                    coverage[Long.numberOfTrailingZeros(squares)]++;
+                }
+            }
+        }
+
+        int[][][] weights = new int[PHASES][PATTERNS.length][];
+        int[] mobilityWeights = new int[PHASES];
+        for (int phase = 0; phase < PHASES; phase++) {
+            double late = (double) phase / (PHASES - 1); // 0 in the opening, 1 near the end
+            mobilityWeights[phase] = (int) Math.round(DISC * 2.0 * (1 - late)) + DISC / 4;
+            for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+                int[] squares = squares(PATTERNS[pattern]);
+                int[] table = new int[tableSize(pattern)];
+                int[] cells = new int[squares.length];
+                for (int index = 0; index < table.length; index++) {
+                    for (int i = 0, rest = index; i < cells.length; i++, rest /= 3) {
+                        cells[i] = rest % 3;
+                    }
+                    double value = 0;
+                    for (int i = 0; i < cells.length; i++) {
+                        if (cells[i] != 0) {
+                            int square = squares[i];
+                            double squareValue = squareValue(square, squares, cells) * DISC / 4.0;
+                            double discs = (1 - late) * squareValue + late * DISC;
+                            value += (cells[i] == 1 ? discs : -discs) / coverage[square];
+                        }
+                    }
+                    table[index] = (int) Math.rint(value); // Rounds halves to even, so swapping colors negates the score exactly
+                }
+                weights[phase][pattern] = table;
+            }
+        }
+        return new PatternEvaluator(weights, mobilityWeights);
+    }
+
+    // Square value, with X- and C-squares next to an occupied corner no longer penalised
+    private static int squareValue(int square, int[] squares, int[] cells) {
+        int row = square / 8;
+        int col = square % 8;
+        int value = SQUARE_VALUES[row][col];
+        if (value < 0 && (row <= 1 || row >= 6) && (col <= 1 || col >= 6)) {
+            int corner = (row < 4 ? 0 : 56) + (col < 4 ? 0 : 7);
+            for (int i = 0; i < squares.length; i++) {
+                if (squares[i] == corner) {
+                    return cells[i] != 0 ? 1 : value; // Judged against the corner only when the pattern holds it
+                }
+            }
+        }
+        return value;
+    }
+
+    // Squares of a mask in ascending order (the digit order of the pattern index)
+    static int[] squares(long mask) {
+        int[] squares = new int[Long.bitCount(mask)];
+        for (int i = 0; mask != 0; mask &= mask - 1) {
+            squares[i++] = Long.numberOfTrailingZeros(mask);
+        }
+        return squares;
+    }
+
+    // Board squares read by a pattern in one of the orientations evaluate visits
+    static long coveredSquares(long pattern, int symmetry) {
+        long covered = 0;
+        for (int square = 0; square < 64; square++) {
+            if ((orient(1L << square, symmetry) & pattern) != 0) {
+                covered |= 1L << square;
+            }
+        }
+        return covered;
+    }
+
+    // Apply the mirrors evaluate has applied by the given orientation
+    static long orient(long bits, int symmetry) {
+        for (int step = 1; step <= symmetry; step++) {
+            if ((step & 1) != 0) {
+                bits = BitBoard.mirrorHorizontal(bits);
+            } else if (step == 2 || step == 6) {
+                bits = BitBoard.flipVertical(bits);
+            } else {
+                bits = BitBoard.flipDiagonal(bits);
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class Perft {
+    // Leaf counts from the start position for depths 0 to 14, with a pass counted as a ply and a finished game
+    // counted as one leaf at the depth where it ends
+    private static final long[] START_COUNTS = {
+            1L, 4L, 12L, 56L, 244L, 1_396L, 8_200L, 55_092L, 390_216L, 3_005_288L, 24_571_284L,
+            212_258_800L, 1_939_886_636L, 18_429_641_748L, 184_042_084_512L
+    };
+    private static final int SPLIT_DEPTH = 5; // Subtrees of at most this depth are counted serially by one task
+
+    private final boolean checked; // Count through the Board API and compare each move list with the array scanner
+    private final ForkJoinPool pool; // Pool for parallel counting (null for serial)
+
+    // Constructor to create a counter, serial if threads is 1
+    public Perft(boolean checked, int threads) {
+        this.checked = checked;
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    // Count leaf nodes to depth 1..N and print nodes per second for each depth
+    // Usage: java Perft <depth> [start | <blackHex>:<whiteHex>:<b|w>] [threads] [--check]
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java Perft <depth> [start | <blackHex>:<whiteHex>:<b|w>] [threads] [--check]");
+            return;
+        }
+        List<String> options = new ArrayList<>(List.of(args));
+        boolean checked = options.remove("--check");
+        int maxDepth = Integer.parseInt(options.get(0));
+        String position = options.size() > 1 ? options.get(1) : "start";
+        int threads = options.size() > 2 ? Integer.parseInt(options.get(2)) : 1;
+
+        Board start = new Board();
+        start.initialize();
+        long black = start.getBitBoard().black;
+        long white = start.getBitBoard().white;
+        boolean isBlackTurn = true;
+        boolean isStart = position.equals("start");
+        if (!isStart) {
+            String[] parts = position.split(":");
+            black = Long.parseUnsignedLong(parts[0], 16);
+            white = Long.parseUnsignedLong(parts[1], 16);
+            isBlackTurn = parts.length < 3 || parts[2].equalsIgnoreCase("b");
+            if ((black & white) != 0) {
+                System.out.println("Black and white discs overlap");
+                return;
+            }
+        }
+
+        Perft perft = new Perft(checked, threads);
+        System.out.printf("Perft from %s, %s to move, %d thread%s%s%n", isStart ? "the start position" : position,
+                isBlackTurn ? "black" : "white", threads, threads == 1 ? "" : "s", checked ? ", checked" : "");
+        System.out.printf("%5s %18s %10s %14s %s%n", "Depth", "Leaves", "ms", "Nodes/s", isStart ? "Expected" : "");
+        boolean allMatch = true;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long startTime = System.nanoTime();
+            long leaves = perft.count(black, white, isBlackTurn, depth);
+            long elapsed = System.nanoTime() - startTime;
+            String expected = "";
+            if (isStart && depth < START_COUNTS.length) {
+                boolean match = leaves == START_COUNTS[depth];
+                allMatch &= match;
+                expected = match ? "ok" : String.format("MISMATCH (%,d)", START_COUNTS[depth]);
+            }
+            System.out.printf("%5d %,18d %10d %,14d %s%n", depth, leaves, elapsed / 1_000_000,
+                    (long) (leaves * 1e9 / Math.max(1, elapsed)), expected);
+        }
+        if (!allMatch) {
+            System.exit(1);
+        }
+        System.exit(0); // Stop the pool threads
+    }
+
+    // Count the leaf nodes of the game tree to the given depth
+    public long count(long black, long white, boolean isBlackTurn, int depth) {
+        long player = isBlackTurn ? black : white;
+        long opponent = isBlackTurn ? white : black;
+        if (pool != null) {
+            return pool.invoke(new PerftTask(player, opponent, isBlackTurn, depth));
+        }
+        return countSerial(player, opponent, isBlackTurn, depth);
+    }
+
+    // Count one subtree on the calling thread
+    private long countSerial(long player, long opponent, boolean isBlackTurn, int depth) {
+        if (!checked) {
+            return countBits(player, opponent, depth);
+        }
+        Board board = new Board();
+        board.getBitBoard().setPosition(isBlackTurn ? player : opponent, isBlackTurn ? opponent : player);
+        return countBoard(board, isBlackTurn, depth);
+    }
+
+    // Count leaves on bitboards, with the last ply counted from the move mask without making the moves
+    private static long countBits(long player, long opponent, int depth) {
+        long moves = BitBoard.getMoves(player, opponent);
+        if (moves == 0) {
+            if (!BitBoard.hasMoves(opponent, player)) {
+                return 1; // Game over
+            }
+            return depth == 1 ? 1 : countBits(opponent, player, depth - 1); // Pass
+        }
+        if (depth == 1) {
+            return Long.bitCount(moves);
+        }
+        long leaves = 0;
+        for (; moves != 0; moves &= moves - 1) {
+            int square = Long.numberOfTrailingZeros(moves);
+            long flips = BitBoard.getFlips(square, player, opponent);
+            leaves += countBits(opponent ^ flips, player | flips | (1L << square), depth - 1);
+        }
+        return leaves;
+    }
+
+    // Count leaves through the Board API used by the game, checking each move list against the array scanner
+    private static long countBoard(Board board, boolean isBlackTurn, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        List<Move> moves = board.getValidMoves(isBlackTurn);
+        checkMoves(board, isBlackTurn, moves);
+        if (moves.isEmpty()) {
+            if (board.isGameOver()) {
+                return 1;
+            }
+            if (board.hasValidMoves(isBlackTurn)) {
+                throw new IllegalStateException("hasValidMoves disagrees with getValidMoves");
+            }
+            return countBoard(board, !isBlackTurn, depth - 1); // Pass
+        }
+        long leaves = 0;
+        for (Move move : moves) {
+            long flips = board.makeMove(move.row, move.col, isBlackTurn);
+            if (flips == 0) {
+                throw new IllegalStateException("makeMove rejected valid move " + move.row + "," + move.col);
+            }
+            leaves += countBoard(board, !isBlackTurn, depth - 1);
+            board.undoMove(move.row, move.col, flips, isBlackTurn);
+        }
+        return leaves;
+    }
+
+    // Compare a move list with the squares accepted by the 2D-array move check
+    private static void checkMoves(Board board, boolean isBlackTurn, List<Move> moves) {
+        int[][] state = board.getState();
+        int expected = 0;
+        for (int row = 0; row < Board.BOARD_SIZE; row++) {
+            for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                if (Board.isValidMove(row, col, isBlackTurn, state)) {
+                    expected++;
+                    if (!board.isValidMove(row, col, isBlackTurn)) {
+                        throw new IllegalStateException(String.format("Move %d,%d missing from %016x:%016x",
+                                row, col, board.getBitBoard().black, board.getBitBoard().white));
+                    }
+                }
+            }
+        }
+        if (moves.size() != expected) {
+            throw new IllegalStateException(String.format("%d moves instead of %d in %016x:%016x",
+                    moves.size(), expected, board.getBitBoard().black, board.getBitBoard().white));
+        }
+    }
+
+    // Subtree count that forks one task per move until the remaining depth is small
+    private class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L; // ForkJoinTask is Serializable, though tasks are never serialized
+        private final long player; // Discs of the side to move
+        private final long opponent; // Discs of the other side
+        private final boolean isBlackTurn; // Side to move
+        private final int depth; // Remaining depth
+
+        PerftTask(long player, long opponent, boolean isBlackTurn, int depth) {
+            this.player = player;
+            this.opponent = opponent;
+            this.isBlackTurn = isBlackTurn;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SPLIT_DEPTH) {
+                return countSerial(player, opponent, isBlackTurn, depth);
+            }
+            long moves = BitBoard.getMoves(player, opponent);
+            if (moves == 0) {
+                if (!BitBoard.hasMoves(opponent, player)) {
+                    return 1L; // Game over
+                }
+                return new PerftTask(opponent, player, !isBlackTurn, depth - 1).compute(); // Pass
+            }
+            List<PerftTask> tasks = new ArrayList<>();
+            for (; moves != 0; moves &= moves - 1) {
+                int square = Long.numberOfTrailingZeros(moves);
+                long flips = BitBoard.getFlips(square, player, opponent);
+                tasks.add(new PerftTask(opponent ^ flips, player | flips | (1L << square), !isBlackTurn, depth - 1));
+            }
+            long leaves = 0;
+            for (PerftTask task : invokeAll(tasks)) {
+                leaves += task.join();
+            }
+            return leaves;
+        }
+    }
+}
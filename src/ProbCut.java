@@ -0,0 +1,138 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Multi-ProbCut parameters: for each game phase and search depth, the score of a shallow search predicts the deep
+// score as slope * shallow + offset, with the standard deviation (sigma) of the prediction error
+public class ProbCut {
+    public static final String DEFAULT_PATH = "weights/probcut-%s.bin"; // Parameters read at startup, per difficulty
+    public static final int MIN_DEPTH = 3; // Shallowest search that is cut
+    public static final int MAX_DEPTH = 16; // Deepest search with parameters
+    public static final double CUT_THRESHOLD = 1.5; // Standard deviations the prediction must clear the window by
+    public static final int EXTRA_DEPTH = 2; // Plies added to the nominal search depth when cuts are on
+    private static final int MAGIC = 0x52565043; // File signature ("RVPC")
+    private static final int VERSION = 1; // Format version, bumped when the layout changes
+
+    private static final Map<AIDifficulty, ProbCut> startupParameters = new EnumMap<>(AIDifficulty.class); // Loaded files (null for none)
+
+    private final double[][] slope; // Deep score per shallow score unit, by phase and depth
+    private final double[][] offset; // Deep score at a shallow score of 0, by phase and depth
+    private final double[][] sigma; // Standard deviation of the prediction error, 0 where no cut is made
+
+    // Constructor to hold parameters indexed by phase (PatternEvaluator.phase) and depth (0 to MAX_DEPTH)
+    public ProbCut(double[][] slope, double[][] offset, double[][] sigma) {
+        this.slope = slope;
+        this.offset = offset;
+        this.sigma = sigma;
+    }
+
+    // Depth of the shallow search that predicts a search to the given depth: about half of it, with the same parity
+    // so both searches end with the same side to move
+    public static int shallowDepth(int depth) {
+        int shallow = depth / 2;
+        return shallow + ((shallow ^ depth) & 1);
+    }
+
+    // Check if positions in a phase are cut at a depth
+    public boolean hasCut(int phase, int depth) {
+        return depth >= MIN_DEPTH && depth <= MAX_DEPTH && sigma[phase][depth] > 0 && slope[phase][depth] > 0;
+    }
+
+    // Smallest shallow score that predicts a deep score of at least beta
+    public int upperBound(int phase, int depth, int beta) {
+        return (int) Math.ceil((beta + CUT_THRESHOLD * sigma[phase][depth] - offset[phase][depth]) / slope[phase][depth]);
+    }
+
+    // Largest shallow score that predicts a deep score of at most alpha
+    public int lowerBound(int phase, int depth, int alpha) {
+        return (int) Math.floor((alpha - CUT_THRESHOLD * sigma[phase][depth] - offset[phase][depth]) / slope[phase][depth]);
+    }
+
+    // Get the slope of a phase and depth
+    public double slope(int phase, int depth) {
+        return slope[phase][depth];
+    }
+
+    // Get the offset of a phase and depth
+    public double offset(int phase, int depth) {
+        return offset[phase][depth];
+    }
+
+    // Get the standard deviation of a phase and depth (0 where no cut is made)
+    public double sigma(int phase, int depth) {
+        return sigma[phase][depth];
+    }
+
+    // Parameters used by AIs of a difficulty at startup (null if its default file does not exist or cannot be read)
+    public static synchronized ProbCut startupParameters(AIDifficulty difficulty) {
+        if (!startupParameters.containsKey(difficulty)) {
+            ProbCut parameters = null;
+            String path = defaultPath(difficulty);
+            if (new File(path).isFile()) {
+                try {
+                    parameters = read(path);
+                } catch (IOException e) {
+                    e.printStackTrace(); // Search full-width
+                }
+            }
+            startupParameters.put(difficulty, parameters);
+        }
+        return startupParameters.get(difficulty);
+    }
+
+    // Default file of a difficulty
+    public static String defaultPath(AIDifficulty difficulty) {
+        return String.format(DEFAULT_PATH, difficulty.name().toLowerCase());
+    }
+
+    // Read a parameters file
+    public static ProbCut read(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a ProbCut file: " + path);
+            }
+            if (in.readInt() != PatternEvaluator.PHASES || in.readInt() != MAX_DEPTH) {
+                throw new IOException("ProbCut file has a different layout: " + path);
+            }
+            double[][] slope = new double[PatternEvaluator.PHASES][MAX_DEPTH + 1];
+            double[][] offset = new double[PatternEvaluator.PHASES][MAX_DEPTH + 1];
+            double[][] sigma = new double[PatternEvaluator.PHASES][MAX_DEPTH + 1];
+            for (int phase = 0; phase < PatternEvaluator.PHASES; phase++) {
+                for (int depth = 0; depth <= MAX_DEPTH; depth++) {
+                    slope[phase][depth] = in.readFloat();
+                    offset[phase][depth] = in.readFloat();
+                    sigma[phase][depth] = in.readFloat();
+                }
+            }
+            return new ProbCut(slope, offset, sigma);
+        }
+    }
+
+    // Write a parameters file, creating its directory if needed
+    public void write(String path) throws IOException {
+        File parent = new File(path).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(PatternEvaluator.PHASES);
+            out.writeInt(MAX_DEPTH);
+            for (int phase = 0; phase < PatternEvaluator.PHASES; phase++) {
+                for (int depth = 0; depth <= MAX_DEPTH; depth++) {
+                    out.writeFloat((float) slope[phase][depth]);
+                    out.writeFloat((float) offset[phase][depth]);
+                    out.writeFloat((float) sigma[phase][depth]);
+                }
+            }
+        }
+    }
+}
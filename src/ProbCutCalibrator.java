@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ProbCutCalibrator {
+    private static final int OPENING_PLIES = 8; // Random moves played from the start position for variety
+    private static final double RANDOM_MOVE_RATE = 0.1; // Share of later self-play moves that are played at random
+    private static final double SAMPLE_RATE = 0.25; // Share of the self-play positions that are searched for samples
+    private static final long SELF_PLAY_NODES = 20_000; // Node budget of each self-play move
+    private static final int MIN_EMPTIES = 14; // Positions with fewer empty squares are left to the endgame solver
+    private static final int DEFAULT_MAX_DEPTH = 10; // Deepest search of each sampled position
+    private static final int MIN_SAMPLES = 30; // Samples a phase and depth needs before it gets parameters
+    private static final int TABLE_MEGABYTES = 4; // Transposition table size of each self-play AI and sampler
+
+    // Full-width scores of one position for the side to move, indexed by depth
+    private record Sample(int phase, int[] scores) {
+    }
+
+    // Fit ProbCut parameters for a difficulty from positions of its own self-play games
+    // Usage: java ProbCutCalibrator <difficulty> <games> [file] [maxDepth] [threads] [seed]
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage: java ProbCutCalibrator <difficulty> <games> [file] [maxDepth] [threads] [seed]");
+            return;
+        }
+        AIDifficulty difficulty = AIDifficulty.valueOf(args[0].toUpperCase());
+        int games = Integer.parseInt(args[1]);
+        String path = args.length > 2 ? args[2] : ProbCut.defaultPath(difficulty);
+        int maxDepth = Math.min(ProbCut.MAX_DEPTH, args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MAX_DEPTH);
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : System.currentTimeMillis();
+
+        System.out.printf("Calibrating %s from %d games on %d threads to depth %d, seed %d%n",
+                difficulty, games, threads, maxDepth, seed);
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<Sample>>> futures = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            long gameSeed = seed + game;
+            futures.add(pool.submit(() -> playGame(difficulty, maxDepth, gameSeed)));
+        }
+        List<Sample> samples = new ArrayList<>();
+        for (Future<List<Sample>> future : futures) {
+            try {
+                samples.addAll(future.get());
+            } catch (ExecutionException e) {
+                e.printStackTrace(); // A failed game is left out of the samples
+            }
+        }
+        pool.shutdown();
+
+        ProbCut probCut = fit(samples, maxDepth);
+        probCut.write(path);
+        System.out.printf("Wrote parameters from %,d positions to %s in %.1f s%n",
+                samples.size(), path, (System.nanoTime() - start) / 1e9);
+        System.exit(0); // Stop the helper pool threads
+    }
+
+    // Play one self-play game and search a share of its positions to every depth with a full window
+    private static List<Sample> playGame(AIDifficulty difficulty, int maxDepth, long seed) {
+        Random random = new Random(seed);
+        AI ai = new AI(difficulty, new TranspositionTable(TABLE_MEGABYTES, ReplacementPolicy.DEPTH_PREFERRED));
+        ai.setOpeningBook(null); // Book moves would make the games less varied
+        ai.setProbCut(null); // Samples come from full-width searches
+        ai.setTimeLimit(0);
+        ai.setNodeLimit(SELF_PLAY_NODES);
+        TranspositionTable table = new TranspositionTable(TABLE_MEGABYTES, ReplacementPolicy.DEPTH_PREFERRED);
+        AI evaluator = new AI(difficulty, table); // Owns the evaluation of the sampling searcher, which runs without a budget
+        evaluator.setProbCut(null);
+        Searcher searcher = new Searcher(evaluator, table);
+
+        Board board = new Board();
+        board.initialize();
+        boolean isBlackTurn = true;
+        List<Sample> samples = new ArrayList<>();
+        for (int ply = 0; board.countEmptySpaces() >= MIN_EMPTIES && !board.isGameOver(); ply++) {
+            if (!board.hasValidMoves(isBlackTurn)) {
+                isBlackTurn = !isBlackTurn; // Pass
+                continue;
+            }
+            if (ply >= OPENING_PLIES && random.nextDouble() < SAMPLE_RATE) {
+                table.clear(); // Entries from the last position would lend their depth to the shallow searches
+                BitBoard position = board.getBitBoard();
+                samples.add(new Sample(PatternEvaluator.phase(position.countEmpty()),
+                        searcher.scoresByDepth(position, isBlackTurn, maxDepth)));
+            }
+            Move move;
+            if (ply < OPENING_PLIES || random.nextDouble() < RANDOM_MOVE_RATE) {
+                List<Move> moves = board.getValidMoves(isBlackTurn);
+                move = moves.get(random.nextInt(moves.size()));
+            } else {
+                move = ai.findBestMove(board, isBlackTurn);
+            }
+            board.makeMove(move.row, move.col, isBlackTurn);
+            isBlackTurn = !isBlackTurn;
+        }
+        return samples;
+    }
+
+    // Least-squares line through the (shallow, deep) score pairs of every phase and depth, printing each fit
+    private static ProbCut fit(List<Sample> samples, int maxDepth) {
+        double[][] slope = new double[PatternEvaluator.PHASES][ProbCut.MAX_DEPTH + 1];
+        double[][] offset = new double[PatternEvaluator.PHASES][ProbCut.MAX_DEPTH + 1];
+        double[][] sigma = new double[PatternEvaluator.PHASES][ProbCut.MAX_DEPTH + 1];
+        System.out.println("phase depth shallow  samples    slope   offset    sigma  correlation");
+        for (int phase = 0; phase < PatternEvaluator.PHASES; phase++) {
+            for (int depth = ProbCut.MIN_DEPTH; depth <= maxDepth; depth++) {
+                int shallow = ProbCut.shallowDepth(depth);
+                long n = 0;
+                double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0, sumYY = 0;
+                for (Sample sample : samples) {
+                    if (sample.phase() == phase) {
+                        double x = sample.scores()[shallow];
+                        double y = sample.scores()[depth];
+                        n++;
+                        sumX += x;
+                        sumY += y;
+                        sumXX += x * x;
+                        sumXY += x * y;
+                        sumYY += y * y;
+                    }
+                }
+                double varianceX = sumXX - sumX * sumX / n;
+                double varianceY = sumYY - sumY * sumY / n;
+                if (n < MIN_SAMPLES || varianceX <= 0 || varianceY <= 0) {
+                    continue; // Too few positions: this depth is searched full-width in this phase
+                }
+                double covariance = sumXY - sumX * sumY / n;
+                double a = covariance / varianceX;
+                double b = (sumY - a * sumX) / n;
+                double residual = Math.max(0, varianceY - a * covariance); // Sum of squared prediction errors
+                slope[phase][depth] = a;
+                offset[phase][depth] = b;
+                sigma[phase][depth] = Math.max(1e-3, Math.sqrt(residual / (n - 2)));
+                System.out.printf("%5d %5d %7d %8d %8.3f %8.2f %8.2f %12.3f%n", phase, depth, shallow, n, a, b,
+                        sigma[phase][depth], covariance / Math.sqrt(varianceX * varianceY));
+            }
+        }
+        return new ProbCut(slope, offset, sigma);
+    }
+}
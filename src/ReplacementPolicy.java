@@ -0,0 +1,3 @@
+public enum ReplacementPolicy {
+    ALWAYS, DEPTH_PREFERRED
+}
@@ -1,11 +1,12 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.text.NumberFormat;
 
-public class Reversi extends JFrame {
+public class Reversi extends JFrame implements GameListener {
     private final GameEngine gameEngine; // The game engine that handles the game logic
-    private JButton[][] boardButtons; // 2D array of buttons representing the game board
+    private BoardPanel boardPanel; // Painted game board
     private JLabel turnLabel, scoreLabel, depthLabel, searchedNodesLabel, lastMoveLabel; // Labels for game status
 
     // Constructor to initialize the Reversi game
@@ -32,7 +33,7 @@ public class Reversi extends JFrame {
 
         // If the game mode involves AI, prompt for AI difficulty
         if (gameMode == GameMode.HumanvsAI || gameMode == GameMode.AIvsAI) {
-            String[] difficulties = {"Easy", "Medium", "Hard", "Expert"}; // Available AI difficulties
+            String[] difficulties = {"Easy", "Medium", "Hard", "Expert", "Pattern"}; // Available AI difficulties
             int difficultyChoiceBlack; // Difficulty choice for black AI
             int difficultyChoiceWhite; // Difficulty choice for white AI
 
@@ -105,7 +106,7 @@ public class Reversi extends JFrame {
         }
 
         // Initialize the game engine with the selected mode and AI difficulties
-        gameEngine = new GameEngine(this, gameMode, blackAIDifficulty, whiteAIDifficulty);
+        gameEngine = new GameEngine(this, Reversi::runAfterDelay, gameMode, blackAIDifficulty, whiteAIDifficulty);
 
         initializeUI(); // Set up the user interface
         gameEngine.startGame(); // Start the game
@@ -113,16 +114,8 @@ public class Reversi extends JFrame {
 
     // Initialize the user interface
     private void initializeUI() {
-        // Create board buttons
-        boardButtons = new JButton[Board.BOARD_SIZE][Board.BOARD_SIZE]; // Initialize the 2D array of buttons
-        JPanel boardPanel = new JPanel(new GridLayout(Board.BOARD_SIZE, Board.BOARD_SIZE)); // Create a grid layout for the board
-        for (int i = 0; i < Board.BOARD_SIZE; i++) {
-            for (int j = 0; j < Board.BOARD_SIZE; j++) {
-                JButton button = getJButton(i, j); // Create a button for each cell
-                boardButtons[i][j] = button; // Add the button to the array
-                boardPanel.add(button); // Add the button to the board panel
-            }
-        }
+        // Create the board, which sends clicked squares to the engine as player moves
+        boardPanel = new BoardPanel(gameEngine::makePlayerMove);
 
         // Create control buttons
         JButton newGameButton = new JButton("New Game"); // Button to start a new game
@@ -134,6 +127,9 @@ public class Reversi extends JFrame {
         JButton undoButton = new JButton("Undo"); // Button to undo the last move
         undoButton.addActionListener(_ -> gameEngine.undoMove()); // Trigger undo functionality
 
+        JButton redoButton = new JButton("Redo"); // Button to play an undone move again
+        redoButton.addActionListener(_ -> gameEngine.redoMove()); // Trigger redo functionality
+
         JButton exitButton = new JButton("Exit"); // Button to exit the game
         exitButton.addActionListener(_ -> System.exit(0)); // Exit the application
 
@@ -141,6 +137,7 @@ public class Reversi extends JFrame {
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.CENTER)); // Panel for control buttons
         controlPanel.add(newGameButton); // Add new game button
         controlPanel.add(undoButton); // Add undo button
+        controlPanel.add(redoButton); // Add redo button
         controlPanel.add(exitButton); // Add exit button
 
         // Create status labels
@@ -174,63 +171,50 @@ public class Reversi extends JFrame {
         add(boardPanel, BorderLayout.CENTER); // Add board panel to the center
         add(infoPanel, BorderLayout.SOUTH); // Add info panel to the bottom
 
+        // Stop any AI search in progress when the window is closed or replaced by a new game
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                gameEngine.shutdown();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                gameEngine.shutdown();
+            }
+        });
+
         pack(); // Pack the components to fit the window
         setLocationRelativeTo(null); // Center the window on the screen
     }
 
-    // Helper method to create a JButton for a specific cell on the board
-    private JButton getJButton(int i, int j) {
-        JButton button = new JButton(i + "," + j); // Create a button with initial text (row, col)
-        button.setPreferredSize(new Dimension(Board.CELL_SIZE, Board.CELL_SIZE)); // Set button size
-        button.setBackground(new Color(0, 120, 0)); // Set button background color
-        final int row = i;
-        final int col = j;
-        button.addActionListener(_ -> gameEngine.makePlayerMove(row, col)); // Add action listener for player moves
-        return button;
+    // Run an AI result on the EDT after a 100 ms delay, so fast AI moves can be followed on the board
+    private static void runAfterDelay(Runnable command) {
+        SwingUtilities.invokeLater(() -> {
+            Timer timer = new Timer(100, _ -> command.run()); // Add a 100 ms delay for AI move
+            timer.setRepeats(false); // Ensure the timer only runs once
+            timer.start(); // Start the timer
+        });
     }
 
-    // Update the board UI based on the current game state
-    public void updateBoard(int[][] boardState, boolean isBlackTurn, int lastMoveRow, int lastMoveCol) {
-        for (int i = 0; i < Board.BOARD_SIZE; i++) {
-            for (int j = 0; j < Board.BOARD_SIZE; j++) {
-                boardButtons[i][j].setBackground(new Color(0, 120, 0)); // Reset background color
-                boardButtons[i][j].setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY, 1)); // Set default border
-
-                if (boardState[i][j] == 1) {
-                    // Black piece
-                    boardButtons[i][j].setIcon(createDiskIcon(Color.BLACK)); // Set black disk icon
-                    boardButtons[i][j].setText(""); // Clear text
-                } else if (boardState[i][j] == 2) {
-                    // White piece
-                    boardButtons[i][j].setIcon(createDiskIcon(Color.WHITE)); // Set white disk icon
-                    boardButtons[i][j].setText(""); // Clear text
-                } else {
-                    // Empty cell
-                    boardButtons[i][j].setIcon(null); // Clear icon
-                    boardButtons[i][j].setText(i + "," + j); // Show cell coordinates
-                    if (Board.isValidMove(i, j, isBlackTurn, boardState)) {
-                        boardButtons[i][j].setBackground(new Color(0, 180, 0)); // Highlight valid moves
-                    } else {
-                        boardButtons[i][j].setBackground(new Color(0, 120, 0)); // Default background for invalid moves
-                    }
-                }
-                if (i == lastMoveRow && j == lastMoveCol) {
-                    boardButtons[i][j].setBorder(BorderFactory.createLineBorder(Color.YELLOW, 3)); // Highlight last move
-                }
-            }
-        }
+    // Update the board UI based on the current game state (only the changed squares are repainted)
+    @Override
+    public void updateBoard(long black, long white, long validMoves, boolean isBlackTurn, int lastMoveRow, int lastMoveCol) {
+        boardPanel.setPosition(black, white, validMoves, lastMoveRow, lastMoveCol);
     }
 
     // Update the status labels (turn, score, depth, searched nodes)
+    @Override
     public void updateStatus(String status, String score, int lastMoveRow, int lastMoveCol) {
         turnLabel.setText(status); // Update turn label
         scoreLabel.setText(score); // Update score label
         depthLabel.setText("Placed Tiles: " + gameEngine.placedTiles + "  Remaining: " + (Board.BOARD_SIZE * Board.BOARD_SIZE - gameEngine.placedTiles)); // Update depth label
-        searchedNodesLabel.setText("Searched Nodes: " + NumberFormat.getInstance().format(gameEngine.searchedNodes)); // Update searched nodes label
+        searchedNodesLabel.setText("Searched Nodes: " + NumberFormat.getInstance().format(gameEngine.getSearchedNodes())); // Update searched nodes label
         lastMoveLabel.setText("Last Move: " + lastMoveRow + "," + lastMoveCol); // Update last move label
     }
 
     // Show the end game dialog with the winner and final score
+    @Override
     public void showEndGameDialog(String winner, int blackCount, int whiteCount) {
         String message = String.format("Game Over!\nBlack: %d\nWhite: %d\n%s wins!", blackCount, whiteCount, winner); // End game message
         int option = JOptionPane.showOptionDialog(this,
@@ -253,22 +237,11 @@ public class Reversi extends JFrame {
     }
 
     // Show an error message dialog
+    @Override
     public void showErrorMessage(String message) {
         JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE); // Show error dialog
     }
 
-    // Helper method to create a disk icon for the board
-    private ImageIcon createDiskIcon(Color color) {
-        int size = Board.CELL_SIZE - 10; // Set the size of the disk
-        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB); // Create a buffered image
-        Graphics2D g2d = image.createGraphics(); // Get graphics context
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON); // Enable anti-aliasing
-        g2d.setColor(color); // Set the color of the disk
-        g2d.fillOval(0, 0, size, size); // Draw the disk
-        g2d.dispose(); // Release graphics resources
-        return new ImageIcon(image); // Return the disk as an ImageIcon
-    }
-
     // Main method to start the application
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> new Reversi().setVisible(true)); // Launch the game on the event dispatch thread
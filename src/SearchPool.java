@@ -0,0 +1,112 @@
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fixed number of platform threads running AI searches for many games, with a bounded queue: when the queue is
+// full, submitting blocks the caller (a session's virtual thread) instead of growing the queue or failing
+public class SearchPool extends AbstractExecutorService {
+    private final ThreadPoolExecutor executor; // Runs the searches
+    private final Semaphore slots; // One permit per running or queued search
+    private final LatencyHistogram queueWait = new LatencyHistogram(); // Time from submission to the start of a search
+    private final LatencyHistogram runTime = new LatencyHistogram(); // Time a search ran
+    private final AtomicInteger blocked = new AtomicInteger(); // Callers waiting for room in the queue
+
+    // Constructor to create a pool with the given number of search threads and queued searches
+    public SearchPool(int threads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "search-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        slots = new Semaphore(threads + queueCapacity);
+    }
+
+    // Queue a search, waiting while the pool is full; the wait and run times are recorded
+    @Override
+    public void execute(Runnable command) {
+        if (!slots.tryAcquire()) {
+            blocked.incrementAndGet();
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting for the search pool", e);
+            } finally {
+                blocked.decrementAndGet();
+            }
+        }
+        long submitted = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted);
+                try {
+                    command.run();
+                } finally {
+                    runTime.record(System.nanoTime() - started);
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    // Number of searches waiting for a thread
+    public int queueLength() {
+        return executor.getQueue().size();
+    }
+
+    // Number of searches running
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    // Number of callers waiting for room in the queue
+    public int blockedCount() {
+        return blocked.get();
+    }
+
+    // Time searches waited in the queue
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    // Time searches ran
+    public LatencyHistogram getRunTime() {
+        return runTime;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+}
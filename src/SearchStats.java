@@ -0,0 +1,51 @@
+// Statistics of the search for one move, summed over all search threads
+public record SearchStats(boolean isBlack, int empties, Source source, int depth, long nanos, long nodes,
+                          long expandedNodes, long cutoffs, long firstMoveCutoffs, long ttProbes, long ttHits,
+                          long probCuts) {
+    // Where the move came from
+    public enum Source {
+        BOOK, // Opening book, no search
+        SOLVER, // Endgame solver
+        SEARCH // Heuristic search (possibly after the solver ran out of time)
+    }
+
+    // Nodes per second over the whole move
+    public long nodesPerSecond() {
+        return nanos > 0 ? (long) (nodes * 1e9 / nanos) : 0;
+    }
+
+    // Share of expanded nodes that ended in a beta cutoff
+    public double cutoffRate() {
+        return ratio(cutoffs, expandedNodes);
+    }
+
+    // Share of beta cutoffs caused by the first move searched (a measure of move ordering)
+    public double firstMoveCutoffRate() {
+        return ratio(firstMoveCutoffs, cutoffs);
+    }
+
+    // Share of transposition table probes that found the position
+    public double ttHitRate() {
+        return ratio(ttHits, ttProbes);
+    }
+
+    // Share of expanded nodes cut by Multi-ProbCut instead of being searched to the full depth
+    public double probCutRate() {
+        return ratio(probCuts, expandedNodes + probCuts);
+    }
+
+    // Game phase of the searched position
+    public String phase() {
+        return phase(empties);
+    }
+
+    // Game phase for a number of empty squares, with the same boundaries as the AI's search depths
+    public static String phase(int empties) {
+        return empties > 32 ? "early" : empties > 16 ? "mid" : empties > 13 ? "late" : "endgame";
+    }
+
+    // A count divided by a total, 0 when the total is 0
+    static double ratio(long count, long total) {
+        return total > 0 ? (double) count / total : 0;
+    }
+}
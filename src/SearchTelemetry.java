@@ -0,0 +1,164 @@
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class SearchTelemetry implements SearchTelemetryMBean {
+    private static final Map<AIDifficulty, SearchTelemetry> INSTANCES = new EnumMap<>(AIDifficulty.class); // One per level
+
+    // Totals over all AIs of the level, which may search on several threads at once
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder bookMoves = new LongAdder();
+    private final LongAdder solverMoves = new LongAdder();
+    private final LongAdder depthSum = new LongAdder(); // Completed depths of searched (not book) moves
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder expandedNodes = new LongAdder();
+    private final LongAdder cutoffs = new LongAdder();
+    private final LongAdder firstMoveCutoffs = new LongAdder();
+    private final LongAdder ttProbes = new LongAdder();
+    private final LongAdder ttHits = new LongAdder();
+    private final LongAdder probCuts = new LongAdder();
+    private volatile SearchStats last; // Statistics of the last move (null before the first)
+
+    // Telemetry of a difficulty level, registered with the platform MBean server when first used
+    public static synchronized SearchTelemetry of(AIDifficulty difficulty) {
+        SearchTelemetry telemetry = INSTANCES.get(difficulty);
+        if (telemetry == null) {
+            telemetry = new SearchTelemetry();
+            INSTANCES.put(difficulty, telemetry);
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(telemetry,
+                        new ObjectName("reversi:type=SearchTelemetry,difficulty=" + difficulty.name()));
+            } catch (JMException e) {
+                e.printStackTrace(); // Statistics are still collected and logged
+            }
+        }
+        return telemetry;
+    }
+
+    // Add the statistics of one move
+    public void record(SearchStats stats) {
+        moves.increment();
+        if (stats.source() == SearchStats.Source.BOOK) {
+            bookMoves.increment();
+        } else {
+            depthSum.add(stats.depth());
+            if (stats.source() == SearchStats.Source.SOLVER) {
+                solverMoves.increment();
+            }
+        }
+        nanos.add(stats.nanos());
+        nodes.add(stats.nodes());
+        expandedNodes.add(stats.expandedNodes());
+        cutoffs.add(stats.cutoffs());
+        firstMoveCutoffs.add(stats.firstMoveCutoffs());
+        ttProbes.add(stats.ttProbes());
+        ttHits.add(stats.ttHits());
+        probCuts.add(stats.probCuts());
+        last = stats;
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    @Override
+    public long getBookMoves() {
+        return bookMoves.sum();
+    }
+
+    @Override
+    public long getSolverMoves() {
+        return solverMoves.sum();
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getSearchMillis() {
+        return nanos.sum() / 1_000_000;
+    }
+
+    @Override
+    public long getNodesPerSecond() {
+        long time = nanos.sum();
+        return time > 0 ? (long) (nodes.sum() * 1e9 / time) : 0;
+    }
+
+    @Override
+    public double getAverageDepth() {
+        return SearchStats.ratio(depthSum.sum(), moves.sum() - bookMoves.sum());
+    }
+
+    @Override
+    public double getCutoffRate() {
+        return SearchStats.ratio(cutoffs.sum(), expandedNodes.sum());
+    }
+
+    @Override
+    public double getFirstMoveCutoffRate() {
+        return SearchStats.ratio(firstMoveCutoffs.sum(), cutoffs.sum());
+    }
+
+    @Override
+    public double getTtHitRate() {
+        return SearchStats.ratio(ttHits.sum(), ttProbes.sum());
+    }
+
+    @Override
+    public double getProbCutRate() {
+        return SearchStats.ratio(probCuts.sum(), expandedNodes.sum() + probCuts.sum());
+    }
+
+    @Override
+    public long getLastNodes() {
+        SearchStats stats = last;
+        return stats != null ? stats.nodes() : 0;
+    }
+
+    @Override
+    public int getLastDepth() {
+        SearchStats stats = last;
+        return stats != null ? stats.depth() : 0;
+    }
+
+    @Override
+    public long getLastMillis() {
+        SearchStats stats = last;
+        return stats != null ? stats.nanos() / 1_000_000 : 0;
+    }
+
+    @Override
+    public long getLastNodesPerSecond() {
+        SearchStats stats = last;
+        return stats != null ? stats.nodesPerSecond() : 0;
+    }
+
+    @Override
+    public String getLastPhase() {
+        SearchStats stats = last;
+        return stats != null ? stats.phase() : "";
+    }
+
+    @Override
+    public String getLastSource() {
+        SearchStats stats = last;
+        return stats != null ? stats.source().name() : "";
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder adder : new LongAdder[]{moves, bookMoves, solverMoves, depthSum, nanos, nodes, expandedNodes,
+                cutoffs, firstMoveCutoffs, ttProbes, ttHits, probCuts}) {
+            adder.reset();
+        }
+        last = null;
+    }
+}
@@ -0,0 +1,38 @@
+// JMX view of the search statistics of one difficulty level (reversi:type=SearchTelemetry,difficulty=...)
+public interface SearchTelemetryMBean {
+    long getMoves(); // Moves played since the last reset
+
+    long getBookMoves(); // Moves taken from the opening book
+
+    long getSolverMoves(); // Moves decided by the endgame solver
+
+    long getNodes(); // Nodes searched
+
+    long getSearchMillis(); // Time spent choosing moves
+
+    long getNodesPerSecond(); // Nodes per second over all moves
+
+    double getAverageDepth(); // Mean completed depth of searched moves
+
+    double getCutoffRate(); // Share of expanded nodes that ended in a beta cutoff
+
+    double getFirstMoveCutoffRate(); // Share of beta cutoffs caused by the first move searched
+
+    double getTtHitRate(); // Share of transposition table probes that found the position
+
+    double getProbCutRate(); // Share of expanded nodes cut by Multi-ProbCut
+
+    long getLastNodes(); // Nodes searched for the last move
+
+    int getLastDepth(); // Completed depth of the last move
+
+    long getLastMillis(); // Time taken by the last move
+
+    long getLastNodesPerSecond(); // Nodes per second of the last move
+
+    String getLastPhase(); // Game phase of the last move
+
+    String getLastSource(); // Where the last move came from (BOOK, SOLVER or SEARCH)
+
+    void reset(); // Clear all counters
+}
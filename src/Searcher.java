@@ -0,0 +1,259 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class Searcher {
+    private static final int INFINITY = 1_000_000; // Larger than any evaluation
+    private static final int ASPIRATION_WINDOW = 8; // Half width of the root window around the previous score
+    private static final int ASPIRATION_MIN_DEPTH = 3; // Aspiration windows are used from this depth on
+    private static final int NO_CUT = Integer.MIN_VALUE; // probCut result when the node must be searched in full
+
+    private final AI ai; // AI that owns this searcher (evaluation and search budget)
+    private final TranspositionTable transpositionTable; // Table shared by all searchers of the AI
+    private final MoveOrderer moveOrderer = new MoveOrderer(); // Killer and history tables of this thread
+    private final BitBoard board = new BitBoard(); // Mutable position searched by this thread
+    long nodes; // Nodes searched for the current move
+    long expandedNodes; // Nodes whose moves were searched (not cut off by the table)
+    long cutoffs; // Beta cutoffs
+    long firstMoveCutoffs; // Beta cutoffs by the first move searched
+    long ttProbes; // Transposition table probes
+    long ttHits; // Probes that found the position
+    long probCuts; // Nodes cut by Multi-ProbCut
+    boolean aborted; // Set when the current iteration ran out of budget
+    int completedDepth; // Deepest completed iteration of the current search
+    long completedTime; // Nanoseconds from the start of the search to the last completed iteration
+    private int previousBestMove; // Best root move of the previous iteration
+    private int previousScore; // Root score of the previous iteration (or the last aspiration attempt)
+
+    // Constructor to create a searcher for an AI and its shared transposition table
+    public Searcher(AI ai, TranspositionTable transpositionTable) {
+        this.ai = ai;
+        this.transpositionTable = transpositionTable;
+    }
+
+    // Run iterative deepening from the given position and return the best moves of the last completed depth
+    public List<Move> iterate(BitBoard position, boolean isBlackTurn, int startDepth, int maxDepth) {
+        board.setPosition(position.black, position.white);
+        long validMoves = board.getMoves(isBlackTurn);
+        nodes = 0;
+        expandedNodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        ttProbes = 0;
+        ttHits = 0;
+        probCuts = 0;
+        aborted = false;
+        completedDepth = 0;
+        moveOrderer.newSearch();
+        previousBestMove = TranspositionTable.NO_MOVE;
+        List<Move> bestMoves = null; // Best moves of the last completed depth
+
+        // Iterative deepening: search one ply deeper each time until the depth or time budget runs out
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            List<Move> iterationMoves = searchRoot(validMoves, depth, isBlackTurn);
+            if (aborted) {
+                break; // Keep the result of the last completed depth
+            }
+            bestMoves = iterationMoves;
+            completedDepth = depth;
+            completedTime = System.nanoTime() - ai.getSearchStartTime();
+            if (Long.bitCount(validMoves) == 1 || !ai.hasTimeForNextDepth()) {
+                break; // Only one move, or the next depth would not finish in the remaining time
+            }
+        }
+        return bestMoves;
+    }
+
+    // Search every root move to the given depth, first inside an aspiration window around the previous score
+    private List<Move> searchRoot(long validMoves, int depth, boolean isBlackTurn) {
+        if (depth >= ASPIRATION_MIN_DEPTH && previousBestMove != TranspositionTable.NO_MOVE) {
+            int alpha = previousScore - ASPIRATION_WINDOW;
+            int beta = previousScore + ASPIRATION_WINDOW;
+            List<Move> bestMoves = searchRoot(validMoves, depth, isBlackTurn, alpha, beta);
+            if (aborted || (previousScore > alpha && previousScore < beta)) {
+                return bestMoves; // The score is inside the window, so it is exact
+            }
+        }
+        return searchRoot(validMoves, depth, isBlackTurn, -INFINITY, INFINITY); // Full window
+    }
+
+    // Search every root move inside the given window and return the moves with the best score
+    private List<Move> searchRoot(long validMoves, int depth, boolean isBlackTurn, int alpha, int beta) {
+        List<Move> bestMoves = new ArrayList<>(); // List to store the best moves
+        int bestScore = -INFINITY;
+
+        // Evaluate each valid move, starting with the best move of the previous iteration
+        int moveCount = moveOrderer.orderMoves(validMoves, 0, previousBestMove, isBlackTurn);
+        for (int i = 0; i < moveCount; i++) {
+            int square = moveOrderer.moves[0][i];
+            long flips = board.makeMove(square, isBlackTurn); // Make the move in place
+            int score;
+            if (i == 0) {
+                score = -negamax(board, depth - 1, !isBlackTurn, -beta, -alpha, 1);
+            } else {
+                // Scout whether the move is at least as good as the best so far (ties are kept for the random choice)
+                int bound = Math.max(alpha, bestScore);
+                score = -negamax(board, depth - 1, !isBlackTurn, -bound, -bound + 1, 1);
+                if (score >= bound && score < beta) {
+                    score = -negamax(board, depth - 1, !isBlackTurn, -beta, -bound + 1, 1); // Exact score
+                }
+            }
+            board.undoMove(square, flips, isBlackTurn); // Restore the position
+            if (aborted) {
+                return bestMoves; // The iteration is incomplete and will be discarded
+            }
+
+            // Update the best move based on the score
+            Move move = new Move(square / Board.BOARD_SIZE, square % Board.BOARD_SIZE);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMoves.clear();
+                bestMoves.add(move);
+            } else if (score == bestScore) {
+                bestMoves.add(move);
+            }
+            if (bestScore >= beta) {
+                break; // Fail high: the aspiration window is re-searched
+            }
+        }
+        previousBestMove = BitBoard.square(bestMoves.getFirst().row, bestMoves.getFirst().col);
+        previousScore = bestScore;
+        return bestMoves;
+    }
+
+    // Principal variation search (negamax form): scores are from the point of view of the player to move
+    int negamax(BitBoard board, int depth, boolean isBlackTurn, int alpha, int beta, int ply) {
+        nodes++; // Increment the number of nodes searched
+        if ((nodes & 1023) == 0 && ai.isOutOfBudget(this) || aborted) {
+            return 0; // Out of budget: the caller discards this iteration
+        }
+        if (depth == 0) {
+            return ai.evaluateBoard(board, isBlackTurn); // Evaluate the board at the search horizon
+        }
+        long validMoves = board.getMoves(isBlackTurn);
+        if (validMoves == 0) {
+            if (!board.hasMoves(!isBlackTurn)) {
+                return ai.evaluateBoard(board, isBlackTurn); // Game over
+            }
+            return -negamax(board, depth, !isBlackTurn, -beta, -alpha, ply + 1); // Pass
+        }
+
+        // Reuse the result of an earlier search of this position if it was searched deep enough
+        int symmetry = TranspositionTable.symmetryOf(board);
+        long key = board.symmetricKey(symmetry, isBlackTurn);
+        long entry = transpositionTable.probe(key);
+        ttProbes++;
+        if (entry != 0) {
+            ttHits++;
+        }
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int storedScore = TranspositionTable.score(entry);
+            switch (TranspositionTable.bound(entry)) {
+                case TranspositionTable.EXACT -> {
+                    return storedScore;
+                }
+                case TranspositionTable.LOWER_BOUND -> alpha = Math.max(alpha, storedScore);
+                case TranspositionTable.UPPER_BOUND -> beta = Math.min(beta, storedScore);
+            }
+            if (beta <= alpha) {
+                return storedScore; // The stored bound already causes a cutoff
+            }
+        }
+
+        // Multi-ProbCut: in null-window nodes a shallow search predicts whether the deep score is outside the window
+        ProbCut probCut = ai.getProbCut();
+        if (probCut != null && beta == alpha + 1 && depth >= ProbCut.MIN_DEPTH) {
+            int cut = probCut(probCut, board, depth, isBlackTurn, alpha, beta, ply);
+            if (cut != NO_CUT) {
+                return cut;
+            }
+        }
+        int alphaOriginal = alpha;
+        int bestMove = TranspositionTable.NO_MOVE;
+
+        // Search the stored best move first, then killers, history and square priors
+        int ttMove = entry != 0 ? TranspositionTable.bestMove(entry) : TranspositionTable.NO_MOVE;
+        if (symmetry != 0 && ttMove != TranspositionTable.NO_MOVE) {
+            ttMove = BitBoard.transformSquare(ttMove, BitBoard.inverseSymmetry(symmetry)); // Stored in the canonical orientation
+        }
+        int moveCount = moveOrderer.orderMoves(validMoves, ply, ttMove, isBlackTurn);
+        expandedNodes++;
+
+        int bestValue = -INFINITY;
+        for (int i = 0; i < moveCount; i++) {
+            int square = moveOrderer.moves[ply][i];
+            long flips = board.makeMove(square, isBlackTurn);
+            int value;
+            if (i == 0) {
+                value = -negamax(board, depth - 1, !isBlackTurn, -beta, -alpha, ply + 1); // Principal variation
+            } else {
+                value = -negamax(board, depth - 1, !isBlackTurn, -alpha - 1, -alpha, ply + 1); // Null-window scout
+                if (value > alpha && value < beta) {
+                    value = -negamax(board, depth - 1, !isBlackTurn, -beta, -value, ply + 1); // Re-search on fail high
+                }
+            }
+            board.undoMove(square, flips, isBlackTurn);
+            if (value > bestValue) {
+                bestValue = value;
+                bestMove = square;
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) {
+                        moveOrderer.recordCutoff(square, ply, depth, isBlackTurn);
+                        cutoffs++;
+                        if (i == 0) {
+                            firstMoveCutoffs++;
+                        }
+                        break; // Beta cutoff
+                    }
+                }
+            }
+        }
+
+        if (aborted) {
+            return 0; // Do not store scores from an interrupted search
+        }
+
+        // Store the result with the bound type implied by the window
+        int bound = bestValue <= alphaOriginal ? TranspositionTable.UPPER_BOUND
+                : bestValue >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        if (symmetry != 0 && bestMove != TranspositionTable.NO_MOVE) {
+            bestMove = BitBoard.transformSquare(bestMove, symmetry);
+        }
+        transpositionTable.store(key, depth, bound, bestValue, bestMove);
+        return bestValue;
+    }
+
+    // Return beta (or alpha) when a shallow search predicts the deep score above beta (or below alpha) with enough
+    // confidence, or NO_CUT when the node must be searched to the full depth
+    private int probCut(ProbCut probCut, BitBoard board, int depth, boolean isBlackTurn, int alpha, int beta, int ply) {
+        int phase = PatternEvaluator.phase(board.countEmpty());
+        if (!probCut.hasCut(phase, depth)) {
+            return NO_CUT;
+        }
+        int shallow = ProbCut.shallowDepth(depth);
+        int upper = probCut.upperBound(phase, depth, beta);
+        if (upper < INFINITY && negamax(board, shallow, isBlackTurn, upper - 1, upper, ply) >= upper && !aborted) {
+            probCuts++;
+            return beta;
+        }
+        int lower = probCut.lowerBound(phase, depth, alpha);
+        if (lower > -INFINITY && negamax(board, shallow, isBlackTurn, lower, lower + 1, ply) <= lower && !aborted) {
+            probCuts++;
+            return alpha;
+        }
+        return NO_CUT;
+    }
+
+    // Search a position with a full window to every depth up to maxDepth and return the score of each (indexed by
+    // depth), as the ProbCut calibration pairs them
+    int[] scoresByDepth(BitBoard position, boolean isBlackTurn, int maxDepth) {
+        board.setPosition(position.black, position.white);
+        aborted = false;
+        moveOrderer.newSearch();
+        int[] scores = new int[maxDepth + 1];
+        for (int depth = 1; depth <= maxDepth && !aborted; depth++) {
+            scores[depth] = negamax(board, depth, isBlackTurn, -INFINITY, INFINITY, 0);
+        }
+        return scores;
+    }
+}
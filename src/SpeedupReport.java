@@ -0,0 +1,70 @@
+import java.util.List;
+import java.util.Random;
+
+public class SpeedupReport {
+    private static final int[] PLIES = {20, 34, 46}; // Early, mid and late game reference positions
+    private static final int POSITIONS_PER_PHASE = 4; // Reference positions generated for each phase
+
+    // Compare the serial search with the parallel search on fixed reference positions
+    // Usage: java SpeedupReport [threads] [difficulty]
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        AIDifficulty difficulty = args.length > 1 ? AIDifficulty.valueOf(args[1].toUpperCase()) : AIDifficulty.EXPERT;
+
+        System.out.printf("Serial vs %d threads (%s)%n", threads, difficulty);
+        System.out.printf("%-12s %5s %14s %10s %14s %10s %8s%n",
+                "Position", "Depth", "Serial nodes", "Serial ms", "Parallel nodes", "Parallel ms", "Speedup");
+        long serialTotal = 0;
+        long parallelTotal = 0;
+        for (int plies : PLIES) {
+            for (int seed = 1; seed <= POSITIONS_PER_PHASE; seed++) {
+                Board board = randomPosition(seed, plies);
+                if (!board.hasValidMoves(true)) {
+                    continue; // Only positions with black to move
+                }
+                AI serial = createAI(difficulty, 1);
+                AI parallel = createAI(difficulty, threads);
+                serial.findBestMove(board, true);
+                parallel.findBestMove(board, true);
+                serialTotal += serial.getTimeToDepthMillis();
+                parallelTotal += parallel.getTimeToDepthMillis();
+                System.out.printf("%-12s %5d %,14d %10d %,14d %10d %7.2fx%n",
+                        plies + " plies #" + seed, serial.getCompletedDepth(),
+                        serial.getLastSearchNodes(), serial.getTimeToDepthMillis(),
+                        parallel.getLastSearchNodes(), parallel.getTimeToDepthMillis(),
+                        (double) serial.getTimeToDepthMillis() / Math.max(1, parallel.getTimeToDepthMillis()));
+            }
+        }
+        System.out.printf("Total time to depth: serial %d ms, parallel %d ms, speedup %.2fx%n",
+                serialTotal, parallelTotal, (double) serialTotal / Math.max(1, parallelTotal));
+        System.exit(0); // Stop the helper pool threads
+    }
+
+    // Create an AI that always searches to its full phase depth
+    private static AI createAI(AIDifficulty difficulty, int threads) {
+        AI ai = new AI(difficulty);
+        ai.setTimeLimit(0);
+        ai.setSolverEmpties(0, 0); // The late positions would otherwise go to the endgame solver, which is serial
+        ai.setOpeningBook(null);
+        ai.setThreads(threads);
+        return ai;
+    }
+
+    // Play random moves from the start position with a fixed seed
+    private static Board randomPosition(long seed, int plies) {
+        Random random = new Random(seed);
+        Board board = new Board();
+        board.initialize();
+        boolean isBlackTurn = true;
+        for (int i = 0; i < plies && !board.isGameOver(); i++) {
+            if (!board.hasValidMoves(isBlackTurn)) {
+                isBlackTurn = !isBlackTurn; // Pass
+            }
+            List<Move> moves = board.getValidMoves(isBlackTurn);
+            Move move = moves.get(random.nextInt(moves.size()));
+            board.makeMove(move.row, move.col, isBlackTurn);
+            isBlackTurn = !isBlackTurn;
+        }
+        return board;
+    }
+}
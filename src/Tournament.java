@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Tournament {
+    private static final int OPENING_PLIES = 4; // Random moves played from the start position before the AIs take over
+    private static final int TABLE_MEGABYTES = 4; // Transposition table size of each tournament AI
+
+    // A player configuration: difficulty plus evaluation weights (and pattern tables for the PATTERN level)
+    private record Player(String name, AIDifficulty difficulty, WeightType weights, PatternEvaluator patterns) {
+        // Parse "EXPERT", "EXPERT:1,2,1,1" (piece differential, mobility, corner, stability) or "PATTERN:weightsFile"
+        static Player parse(String spec) {
+            String[] parts = spec.split(":");
+            AIDifficulty difficulty = AIDifficulty.valueOf(parts[0].toUpperCase());
+            WeightType weights = WeightsFile.startupWeights(difficulty);
+            PatternEvaluator patterns = WeightsFile.startupPatterns();
+            if (parts.length > 1 && difficulty == AIDifficulty.PATTERN) {
+                try {
+                    patterns = WeightsFile.read(parts[1]).patterns;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else if (parts.length > 1) {
+                String[] values = parts[1].split(",");
+                weights = new WeightType(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
+                        Integer.parseInt(values[2]), Integer.parseInt(values[3]));
+            }
+            return new Player(spec, difficulty, weights, patterns);
+        }
+    }
+
+    // Result of one game, with the disc counts from the first player's point of view
+    private record GameResult(int firstDiscs, int secondDiscs, long nodes, long searchNanos, GameRecord record) {
+    }
+
+    // Play a headless AI-vs-AI match and report win/draw/loss, Elo and nodes per second
+    // Usage: java Tournament <games> <player1> <player2> [threads] [seed] [moveTimeMs] [recordFile]
+    // Players are given as DIFFICULTY, DIFFICULTY:pieceDifferential,mobility,corner,stability or PATTERN:weightsFile
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3) {
+            System.out.println("Usage: java Tournament <games> <player1> <player2> [threads] [seed] [moveTimeMs] [recordFile]");
+            System.out.println("Players: DIFFICULTY, DIFFICULTY:pieceDifferential,mobility,corner,stability or PATTERN:weightsFile");
+            return;
+        }
+        int games = Integer.parseInt(args[0]);
+        Player first = Player.parse(args[1]);
+        Player second = Player.parse(args[2]);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.currentTimeMillis();
+        long moveTime = args.length > 5 ? Long.parseLong(args[5]) : AI.DEFAULT_TIME_LIMIT_MS;
+        GameRecordLog recordLog = args.length > 6 // Every game is also written as a game record
+                ? new GameRecordLog(args[6], GameRecordLog.DEFAULT_MAX_BYTES, GameRecordLog.DEFAULT_MAX_FILES) : null;
+
+        System.out.printf("%s vs %s: %d games on %d threads, seed %d, %d ms per move%n",
+                first.name(), second.name(), games, threads, seed, moveTime);
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<GameResult>> futures = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            long openingSeed = seed + game / 2; // Each opening is played twice, once with each color
+            boolean firstIsBlack = game % 2 == 0;
+            futures.add(pool.submit(() -> playGame(first, second, firstIsBlack, openingSeed, moveTime)));
+        }
+
+        int wins = 0, draws = 0, losses = 0, failed = 0;
+        long nodes = 0, searchNanos = 0;
+        for (Future<GameResult> future : futures) {
+            try {
+                GameResult result = future.get();
+                if (result.firstDiscs() > result.secondDiscs()) {
+                    wins++;
+                } else if (result.firstDiscs() < result.secondDiscs()) {
+                    losses++;
+                } else {
+                    draws++;
+                }
+                nodes += result.nodes();
+                searchNanos += result.searchNanos();
+                if (recordLog != null) {
+                    recordLog.append(result.record());
+                }
+            } catch (ExecutionException e) {
+                e.printStackTrace(); // A failed game is left out of the results and fails the run
+                failed++;
+            }
+        }
+        pool.shutdown();
+        if (recordLog != null) {
+            recordLog.close();
+        }
+        report(first, second, wins, draws, losses, failed, nodes, searchNanos, System.nanoTime() - start);
+        System.exit(failed > 0 ? 1 : 0); // A crashed game fails a CI run
+    }
+
+    // Play one game from a seeded random opening
+    private static GameResult playGame(Player first, Player second, boolean firstIsBlack, long openingSeed, long moveTime) {
+        Player blackPlayer = firstIsBlack ? first : second;
+        Player whitePlayer = firstIsBlack ? second : first;
+        AI blackAI = createAI(blackPlayer, moveTime);
+        AI whiteAI = createAI(whitePlayer, moveTime);
+
+        Board board = new Board();
+        board.initialize();
+        boolean isBlackTurn = true;
+        Random random = new Random(openingSeed);
+        long nodes = 0, searchNanos = 0;
+        long startTime = System.currentTimeMillis();
+        List<GameRecord.Ply> plies = new ArrayList<>();
+        for (int ply = 0; !board.isGameOver(); ply++) {
+            if (!board.hasValidMoves(isBlackTurn)) {
+                isBlackTurn = !isBlackTurn; // Pass
+                continue;
+            }
+            Move move;
+            long moveNanos = 0, moveNodes = 0;
+            int depth = 0;
+            if (ply < OPENING_PLIES) {
+                List<Move> moves = board.getValidMoves(isBlackTurn);
+                move = moves.get(random.nextInt(moves.size())); // Random opening move
+            } else {
+                AI ai = isBlackTurn ? blackAI : whiteAI;
+                long moveStart = System.nanoTime();
+                move = ai.findBestMove(board, isBlackTurn);
+                moveNanos = System.nanoTime() - moveStart;
+                moveNodes = ai.getLastSearchNodes();
+                depth = ai.getCompletedDepth();
+                searchNanos += moveNanos;
+                nodes += moveNodes;
+            }
+            plies.add(new GameRecord.Ply(BitBoard.square(move.row, move.col), isBlackTurn, moveNanos, moveNodes, depth));
+            board.makeMove(move.row, move.col, isBlackTurn);
+            isBlackTurn = !isBlackTurn;
+        }
+
+        int black = board.countPieces(1);
+        int white = board.countPieces(2);
+        GameRecord record = new GameRecord(startTime, System.currentTimeMillis() - startTime, "Tournament",
+                blackPlayer.name(), whitePlayer.name(), black, white, plies);
+        return firstIsBlack ? new GameResult(black, white, nodes, searchNanos, record)
+                : new GameResult(white, black, nodes, searchNanos, record);
+    }
+
+    // Create a single-threaded AI for one side of a game
+    private static AI createAI(Player player, long moveTime) {
+        AI ai = new AI(player.difficulty(), player.weights());
+        ai.setPatternEvaluator(player.patterns());
+        ai.setTranspositionTable(new TranspositionTable(TABLE_MEGABYTES, ReplacementPolicy.DEPTH_PREFERRED));
+        ai.setTimeLimit(moveTime);
+        return ai;
+    }
+
+    // Print the match result
+    private static void report(Player first, Player second, int wins, int draws, int losses, int failed,
+                               long nodes, long searchNanos, long wallNanos) {
+        int games = wins + draws + losses;
+        double score = (wins + 0.5 * draws) / Math.max(1, games);
+        // Standard error of the mean game score, from the observed win/draw/loss frequencies
+        double variance = (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2)
+                + losses * Math.pow(score, 2)) / Math.max(1, games);
+        double error = Math.sqrt(variance / Math.max(1, games));
+
+        System.out.println("----------------------------------------");
+        System.out.printf("%s vs %s%n", first.name(), second.name());
+        System.out.printf("Wins: %d  Draws: %d  Losses: %d  (%d games)%n", wins, draws, losses, games);
+        if (failed > 0) {
+            System.out.printf("Failed games: %d (left out of the results)%n", failed);
+        }
+        System.out.printf("Score: %.1f%%%n", score * 100);
+        System.out.printf("Elo difference: %+.1f  (95%% CI %+.1f to %+.1f)%n",
+                elo(score), elo(score - 1.96 * error), elo(score + 1.96 * error));
+        System.out.printf("Nodes: %,d  Search NPS: %,.0f per thread  Throughput: %,.0f nodes/s%n",
+                nodes, nodes / Math.max(1e-9, searchNanos / 1e9), nodes / Math.max(1e-9, wallNanos / 1e9));
+        System.out.printf("Wall time: %.1f s%n", wallNanos / 1e9);
+        System.out.println("----------------------------------------");
+    }
+
+    // Convert an expected score to an Elo difference (clamped so 0% and 100% stay finite)
+    private static double elo(double score) {
+        double clamped = Math.min(Math.max(score, 0.001), 0.999);
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+}
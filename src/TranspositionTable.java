@@ -0,0 +1,98 @@
+import java.util.Arrays;
+
+public class TranspositionTable {
+    public static final int EXACT = 0; // Stored score is the exact value of the position
+    public static final int LOWER_BOUND = 1; // Stored score failed high (the real value is at least the score)
+    public static final int UPPER_BOUND = 2; // Stored score failed low (the real value is at most the score)
+    public static final int NO_MOVE = 64; // Best move value used when no move is stored
+    public static final int CANONICAL_DISCS = 20; // Positions with at most this many discs are stored in canonical form
+
+    private static final int ENTRY_BYTES = 16; // One key plus one data word per entry
+    private static final long VALID = 1L << 63; // Marks a data word as holding an entry
+
+    // Lock-free sharing between threads: each slot stores key ^ data, so a slot torn by two concurrent
+    // writers no longer matches its key and reads as a miss instead of returning another position's data
+    private final long[] keys; // Position key of each entry, XORed with its data word
+    private final long[] data; // Packed score, depth, bound, best move and age of each entry
+    private final int indexMask; // Table size minus one (the size is a power of two)
+    private final ReplacementPolicy policy; // Decides when a new entry may overwrite an old one
+    private int age; // Search generation, so entries from earlier moves can be replaced first
+
+    // Constructor to create a table using at most the given number of megabytes
+    public TranspositionTable(int megabytes, ReplacementPolicy policy) {
+        long budget = Math.max(1, (long) megabytes) * 1024 * 1024 / ENTRY_BYTES;
+        int size = Integer.highestOneBit((int) Math.min(budget, 1 << 30)); // Largest power of two within the budget
+        this.keys = new long[size];
+        this.data = new long[size];
+        this.indexMask = size - 1;
+        this.policy = policy;
+    }
+
+    // Start a new search generation
+    public void newSearch() {
+        age = (age + 1) & 0xff;
+    }
+
+    // Remove all entries
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    // Number of entries in the table
+    public int size() {
+        return keys.length;
+    }
+
+    // Symmetry a position is stored under: its canonical form in the opening, where symmetric variants are often
+    // reached, and the identity later, where finding the canonical form costs more than the extra hits save
+    public static int symmetryOf(BitBoard board) {
+        return Long.bitCount(board.black | board.white) <= CANONICAL_DISCS ? board.canonicalSymmetry() : 0;
+    }
+
+    // Look up a position, returning the packed entry or 0 if the position is not stored
+    public long probe(long key) {
+        int index = (int) key & indexMask;
+        long entry = data[index];
+        return (keys[index] ^ entry) == key ? entry : 0;
+    }
+
+    // Store the result of searching a position
+    public void store(long key, int depth, int bound, int score, int bestMove) {
+        int index = (int) key & indexMask;
+        long old = data[index];
+        if (policy == ReplacementPolicy.DEPTH_PREFERRED && old != 0 && (keys[index] ^ old) != key
+                && age(old) == age && depth(old) > depth) {
+            return; // Keep the deeper entry from the current search
+        }
+        long entry = VALID | ((long) age << 49) | ((long) bestMove << 42) | ((long) bound << 40)
+                | ((long) Math.min(depth, 255) << 32) | (score & 0xffffffffL);
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+
+    // Decode the score of an entry
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    // Decode the search depth of an entry
+    public static int depth(long entry) {
+        return (int) (entry >>> 32) & 0xff;
+    }
+
+    // Decode the bound type of an entry
+    public static int bound(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    // Decode the best move square of an entry (NO_MOVE if none)
+    public static int bestMove(long entry) {
+        return (int) (entry >>> 42) & 0x7f;
+    }
+
+    // Decode the search generation of an entry
+    private static int age(long entry) {
+        return (int) (entry >>> 49) & 0xff;
+    }
+}
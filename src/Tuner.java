@@ -0,0 +1,428 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Tuner {
+    private static final int OPENING_PLIES = 8; // Random moves played from the start position for variety
+    private static final double RANDOM_MOVE_RATE = 0.1; // Share of later self-play moves that are played at random
+    private static final long SELF_PLAY_NODES = 20_000; // Node budget of each self-play move
+    private static final int LABEL_EMPTIES = 14; // Empty squares from which games are finished with perfect play
+    private static final int TABLE_MEGABYTES = 4; // Transposition table size of each self-play AI and solver
+    private static final int SAMPLE_BYTES = 17; // Bytes per position in the positions file
+    private static final int BATCH_SIZE = 256; // Positions per gradient step
+    private static final double LEARNING_RATE = 0.02; // Share of the mean error corrected per step
+    private static final double VALIDATION_SHARE = 0.1; // Share of the positions held out to pick the best epoch
+    private static final double WEIGHT_LEARNING_RATE = 0.1; // Step size for the standardised WeightType features
+    private static final int WEIGHT_SCALE = 4; // WeightType units per disc
+
+    // A labelled position: the pieces and the final disc difference for black with perfect play from the label point
+    private record Sample(long black, long white, int score) {
+    }
+
+    // Generate labelled positions from self-play, or fit weights to them
+    // Usage: java Tuner generate <games> <positionsFile> [threads] [seed]
+    //        java Tuner fit <positionsFile> [weightsFile] [epochs] [threads]
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args[0].equals("generate")) {
+            int games = Integer.parseInt(args[1]);
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            long seed = args.length > 4 ? Long.parseLong(args[4]) : System.currentTimeMillis();
+            generate(games, args[2], threads, seed);
+        } else if (args.length >= 2 && args[0].equals("fit")) {
+            String output = args.length > 2 ? args[2] : WeightsFile.DEFAULT_PATH;
+            int epochs = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+            int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+            fit(args[1], output, epochs, threads);
+        } else {
+            System.out.println("Usage: java Tuner generate <games> <positionsFile> [threads] [seed]");
+            System.out.println("       java Tuner fit <positionsFile> [weightsFile] [epochs] [threads]");
+            return;
+        }
+        System.exit(0); // Stop the helper pool threads
+    }
+
+    // Play self-play games in parallel and append their labelled positions to the positions file
+    private static void generate(int games, String path, int threads, long seed) throws IOException, InterruptedException {
+        System.out.printf("Generating %d games on %d threads, seed %d%n", games, threads, seed);
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<Sample>>> futures = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            long gameSeed = seed + game;
+            futures.add(pool.submit(() -> playGame(gameSeed)));
+        }
+
+        int positions = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path, true)))) {
+            for (Future<List<Sample>> future : futures) {
+                try {
+                    for (Sample sample : future.get()) {
+                        out.writeLong(sample.black());
+                        out.writeLong(sample.white());
+                        out.writeByte(sample.score());
+                        positions++;
+                    }
+                } catch (ExecutionException e) {
+                    e.printStackTrace(); // A failed game is left out of the positions
+                }
+            }
+        }
+        pool.shutdown();
+        System.out.printf("Wrote %,d positions to %s in %.1f s%n", positions, path, (System.nanoTime() - start) / 1e9);
+    }
+
+    // Play one game with the PATTERN AI and finish it with the endgame solver, labelling every position
+    private static List<Sample> playGame(long seed) {
+        Random random = new Random(seed);
+        AI ai = new AI(AIDifficulty.PATTERN, new TranspositionTable(TABLE_MEGABYTES, ReplacementPolicy.DEPTH_PREFERRED));
+        ai.setTimeLimit(0);
+        ai.setNodeLimit(SELF_PLAY_NODES);
+        ai.setSolverEmpties(0, 0); // The tuner labels the endgame itself
+
+        Board board = new Board();
+        board.initialize();
+        boolean isBlackTurn = true;
+        List<BitBoard> played = new ArrayList<>();
+        for (int ply = 0; board.countEmptySpaces() > LABEL_EMPTIES && !board.isGameOver(); ply++) {
+            if (!board.hasValidMoves(isBlackTurn)) {
+                isBlackTurn = !isBlackTurn; // Pass
+                continue;
+            }
+            played.add(new BitBoard(board.getBitBoard()));
+            Move move;
+            if (ply < OPENING_PLIES || random.nextDouble() < RANDOM_MOVE_RATE) {
+                List<Move> moves = board.getValidMoves(isBlackTurn);
+                move = moves.get(random.nextInt(moves.size()));
+            } else {
+                move = ai.findBestMove(board, isBlackTurn);
+            }
+            board.makeMove(move.row, move.col, isBlackTurn);
+            isBlackTurn = !isBlackTurn;
+        }
+
+        // The exact result from here labels all earlier positions, then each perfect-play position gets its own score
+        EndgameSolver solver = new EndgameSolver(null, new TranspositionTable(TABLE_MEGABYTES, ReplacementPolicy.DEPTH_PREFERRED));
+        BitBoard position = new BitBoard(board.getBitBoard());
+        int score = solver.solve(position, isBlackTurn);
+        int gameScore = isBlackTurn ? score : -score;
+        List<Sample> samples = new ArrayList<>();
+        for (BitBoard earlier : played) {
+            samples.add(new Sample(earlier.black, earlier.white, gameScore));
+        }
+        while (!position.isGameOver()) {
+            if (!position.hasMoves(isBlackTurn)) {
+                isBlackTurn = !isBlackTurn; // Pass
+                continue;
+            }
+            int square = solver.solveRoot(position, isBlackTurn, false);
+            samples.add(new Sample(position.black, position.white, isBlackTurn ? solver.lastScore : -solver.lastScore));
+            position.makeMove(square, isBlackTurn);
+            isBlackTurn = !isBlackTurn;
+        }
+        return samples;
+    }
+
+    // Fit the evaluation weights to the labelled positions and write the weights file
+    private static void fit(String input, String output, int epochs, int threads) throws IOException, InterruptedException, ExecutionException {
+        List<Sample> samples = readSamples(input);
+        Collections.shuffle(samples, new Random(samples.size()));
+        int validationCount = (int) (samples.size() * VALIDATION_SHARE);
+        List<Sample> validation = samples.subList(0, validationCount);
+        List<Sample> training = samples.subList(validationCount, samples.size());
+        System.out.printf("Fitting %,d positions (%,d held out) for %d epochs on %d threads%n",
+                training.size(), validation.size(), epochs, threads);
+
+        // Each phase has its own tables, so the phases are fitted independently in parallel
+        PatternEvaluator start = WeightsFile.startupPatterns();
+        int[][][] tables = new int[PatternEvaluator.PHASES][][];
+        int[] mobilityWeights = new int[PatternEvaluator.PHASES];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<PhaseFit>> phaseFits = new ArrayList<>();
+        for (int phase = 0; phase < PatternEvaluator.PHASES; phase++) {
+            int fitPhase = phase;
+            phaseFits.add(pool.submit(() -> new PhaseFit(fitPhase, start, training, validation).run(epochs)));
+        }
+        Future<WeightType> weightFit = pool.submit(() -> fitWeightType(training, validation, epochs));
+        for (Future<PhaseFit> future : phaseFits) {
+            PhaseFit fit = future.get();
+            tables[fit.phase] = fit.tables();
+            mobilityWeights[fit.phase] = (int) Math.round(fit.mobilityWeight);
+            System.out.printf("Phase %d: %,d positions, validation error %.2f discs (was %.2f)%n",
+                    fit.phase, fit.trainingCount, fit.bestError, fit.startError);
+        }
+        WeightType weights = weightFit.get();
+        pool.shutdown();
+
+        new WeightsFile(weights, new PatternEvaluator(tables, mobilityWeights)).write(output);
+        System.out.printf("Weights %d,%d,%d,%d and pattern tables written to %s%n",
+                weights.PieceDifferential, weights.Mobility, weights.Corner, weights.Stability, output);
+    }
+
+    // Read every position of a positions file
+    private static List<Sample> readSamples(String path) throws IOException {
+        int count = (int) (new File(path).length() / SAMPLE_BYTES);
+        List<Sample> samples = new ArrayList<>(count);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            for (int i = 0; i < count; i++) {
+                samples.add(new Sample(in.readLong(), in.readLong(), in.readByte()));
+            }
+        }
+        return samples;
+    }
+
+    // Least-squares fit of the pattern tables and mobility weight of one phase by mini-batch gradient descent
+    private static class PhaseFit {
+        final int phase; // Phase being fitted
+        final int[] offsets = new int[PatternEvaluator.PATTERNS.length]; // Start of each pattern table in the parameters
+        double[] parameters; // Table entries of all patterns, one after the other
+        double[] best; // Parameters of the epoch with the lowest validation error
+        double mobilityWeight; // Score of one move of mobility difference
+        double bestMobilityWeight; // Mobility weight of the best epoch
+        double startError; // Validation error of the starting tables, in discs
+        double bestError; // Lowest validation error reached, in discs
+        int trainingCount; // Training positions in this phase
+        private final int[][] trainingLookups; // Parameter indexes read by each training position
+        private final int[] trainingMobility; // Mobility difference of each training position
+        private final int[] trainingTargets; // Target score of each training position (evaluation units)
+        private final int[][] validationLookups; // The same for the held-out positions
+        private final int[] validationMobility;
+        private final int[] validationTargets;
+
+        // Prepare the features of the positions in this phase, starting from the given tables
+        PhaseFit(int phase, PatternEvaluator start, List<Sample> training, List<Sample> validation) {
+            this.phase = phase;
+            int size = 0;
+            for (int pattern = 0; pattern < PatternEvaluator.PATTERNS.length; pattern++) {
+                offsets[pattern] = size;
+                size += PatternEvaluator.tableSize(pattern);
+            }
+            parameters = new double[size];
+            for (int pattern = 0; pattern < PatternEvaluator.PATTERNS.length; pattern++) {
+                int[] table = start.weights[phase][pattern];
+                for (int index = 0; index < table.length; index++) {
+                    parameters[offsets[pattern] + index] = table[index];
+                }
+            }
+            mobilityWeight = start.mobilityWeights[phase];
+
+            List<Sample> phaseTraining = inPhase(training);
+            List<Sample> phaseValidation = inPhase(validation);
+            trainingCount = phaseTraining.size();
+            trainingLookups = new int[phaseTraining.size()][];
+            trainingMobility = new int[phaseTraining.size()];
+            trainingTargets = new int[phaseTraining.size()];
+            prepare(phaseTraining, trainingLookups, trainingMobility, trainingTargets);
+            validationLookups = new int[phaseValidation.size()][];
+            validationMobility = new int[phaseValidation.size()];
+            validationTargets = new int[phaseValidation.size()];
+            prepare(phaseValidation, validationLookups, validationMobility, validationTargets);
+        }
+
+        // Positions of a list that belong to this phase
+        private List<Sample> inPhase(List<Sample> samples) {
+            List<Sample> result = new ArrayList<>();
+            for (Sample sample : samples) {
+                if (PatternEvaluator.phase(64 - Long.bitCount(sample.black() | sample.white())) == phase) {
+                    result.add(sample);
+                }
+            }
+            return result;
+        }
+
+        // Compute the parameter indexes, mobility and target of each position
+        private void prepare(List<Sample> samples, int[][] lookups, int[] mobility, int[] targets) {
+            int[] patterns = new int[8 * PatternEvaluator.PATTERNS.length];
+            int[] indexes = new int[patterns.length];
+            for (int i = 0; i < samples.size(); i++) {
+                Sample sample = samples.get(i);
+                int count = PatternEvaluator.lookups(sample.black(), sample.white(), patterns, indexes);
+                lookups[i] = new int[count];
+                for (int j = 0; j < count; j++) {
+                    lookups[i][j] = offsets[patterns[j]] + indexes[j];
+                }
+                mobility[i] = BitBoard.mobilityDifference(sample.black(), sample.white());
+                targets[i] = sample.score() * PatternEvaluator.DISC;
+            }
+        }
+
+        // Run the epochs, keeping the parameters with the lowest validation error
+        PhaseFit run(int epochs) {
+            startError = bestError = validationError();
+            best = parameters.clone();
+            bestMobilityWeight = mobilityWeight;
+            double[] errorSums = new double[parameters.length];
+            int[] counts = new int[parameters.length];
+            int[] order = new int[trainingLookups.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Random random = new Random(phase);
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                shuffle(order, random);
+                for (int batchStart = 0; batchStart < order.length; batchStart += BATCH_SIZE) {
+                    int batchEnd = Math.min(order.length, batchStart + BATCH_SIZE);
+                    double mobilityGradient = 0;
+                    double mobilitySquares = 0;
+                    for (int b = batchStart; b < batchEnd; b++) {
+                        int i = order[b];
+                        double error = predict(trainingLookups[i], trainingMobility[i]) - trainingTargets[i];
+                        for (int parameter : trainingLookups[i]) {
+                            errorSums[parameter] += error;
+                            counts[parameter]++;
+                        }
+                        mobilityGradient += error * trainingMobility[i];
+                        mobilitySquares += (double) trainingMobility[i] * trainingMobility[i];
+                    }
+                    // Move every touched entry against its mean error, then clear the sums for the next batch
+                    for (int b = batchStart; b < batchEnd; b++) {
+                        for (int parameter : trainingLookups[order[b]]) {
+                            if (counts[parameter] != 0) {
+                                parameters[parameter] -= LEARNING_RATE * errorSums[parameter] / counts[parameter];
+                                errorSums[parameter] = 0;
+                                counts[parameter] = 0;
+                            }
+                        }
+                    }
+                    if (mobilitySquares > 0) {
+                        mobilityWeight -= LEARNING_RATE * mobilityGradient / mobilitySquares;
+                    }
+                }
+                double error = validationError();
+                if (error < bestError) {
+                    bestError = error;
+                    best = parameters.clone();
+                    bestMobilityWeight = mobilityWeight;
+                }
+            }
+            parameters = best;
+            mobilityWeight = bestMobilityWeight;
+            return this;
+        }
+
+        // Predicted score of a position from its parameter indexes and mobility
+        private double predict(int[] lookups, int mobility) {
+            double score = mobility * mobilityWeight;
+            for (int parameter : lookups) {
+                score += parameters[parameter];
+            }
+            return score;
+        }
+
+        // Root mean squared error on the held-out positions, in discs
+        private double validationError() {
+            double sum = 0;
+            for (int i = 0; i < validationLookups.length; i++) {
+                double error = predict(validationLookups[i], validationMobility[i]) - validationTargets[i];
+                sum += error * error;
+            }
+            return Math.sqrt(sum / Math.max(1, validationLookups.length)) / PatternEvaluator.DISC;
+        }
+
+        // The fitted parameters as rounded tables
+        int[][] tables() {
+            int[][] tables = new int[PatternEvaluator.PATTERNS.length][];
+            for (int pattern = 0; pattern < tables.length; pattern++) {
+                tables[pattern] = new int[PatternEvaluator.tableSize(pattern)];
+                for (int index = 0; index < tables[pattern].length; index++) {
+                    tables[pattern][index] = (int) Math.round(parameters[offsets[pattern] + index]);
+                }
+            }
+            return tables;
+        }
+    }
+
+    // Least-squares fit of the four WeightType weights by mini-batch gradient descent on standardised features
+    private static WeightType fitWeightType(List<Sample> training, List<Sample> validation, int epochs) {
+        // The expert evaluation with one weight set to 1 gives each factor on its own; these AIs only evaluate, so
+        // they share the smallest table
+        TranspositionTable unused = new TranspositionTable(1, ReplacementPolicy.DEPTH_PREFERRED);
+        AI[] factors = {
+                new AI(AIDifficulty.EXPERT, new WeightType(1, 0, 0, 0), unused),
+                new AI(AIDifficulty.EXPERT, new WeightType(0, 1, 0, 0), unused),
+                new AI(AIDifficulty.EXPERT, new WeightType(0, 0, 1, 0), unused),
+                new AI(AIDifficulty.EXPERT, new WeightType(0, 0, 0, 1), unused)
+        };
+        double[][] features = new double[training.size()][factors.length];
+        double[] scales = new double[factors.length];
+        for (int i = 0; i < training.size(); i++) {
+            BitBoard board = new BitBoard(training.get(i).black(), training.get(i).white());
+            for (int f = 0; f < factors.length; f++) {
+                features[i][f] = factors[f].evaluateBoard(board, true);
+                scales[f] += features[i][f] * features[i][f];
+            }
+        }
+        for (int f = 0; f < factors.length; f++) {
+            scales[f] = Math.max(1e-9, Math.sqrt(scales[f] / Math.max(1, training.size())));
+        }
+
+        double[] weights = new double[factors.length];
+        double[] gradient = new double[factors.length];
+        int[] order = new int[training.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(training.size());
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            shuffle(order, random);
+            for (int batchStart = 0; batchStart < order.length; batchStart += BATCH_SIZE) {
+                int batchEnd = Math.min(order.length, batchStart + BATCH_SIZE);
+                Arrays.fill(gradient, 0);
+                for (int b = batchStart; b < batchEnd; b++) {
+                    int i = order[b];
+                    double prediction = 0;
+                    for (int f = 0; f < factors.length; f++) {
+                        prediction += weights[f] * features[i][f] / scales[f];
+                    }
+                    double error = prediction - training.get(i).score() * WEIGHT_SCALE;
+                    for (int f = 0; f < factors.length; f++) {
+                        gradient[f] += error * features[i][f] / scales[f];
+                    }
+                }
+                for (int f = 0; f < factors.length; f++) {
+                    weights[f] -= WEIGHT_LEARNING_RATE * gradient[f] / (batchEnd - batchStart);
+                }
+            }
+        }
+
+        int[] rounded = new int[factors.length];
+        for (int f = 0; f < factors.length; f++) {
+            rounded[f] = (int) Math.round(weights[f] / scales[f]);
+        }
+        double sum = 0;
+        for (Sample sample : validation) {
+            BitBoard board = new BitBoard(sample.black(), sample.white());
+            double error = -sample.score() * WEIGHT_SCALE;
+            for (int f = 0; f < factors.length; f++) {
+                error += rounded[f] * factors[f].evaluateBoard(board, true);
+            }
+            sum += error * error;
+        }
+        System.out.printf("WeightType: validation error %.2f discs%n",
+                Math.sqrt(sum / Math.max(1, validation.size())) / WEIGHT_SCALE);
+        return new WeightType(rounded[0], rounded[1], rounded[2], rounded[3]);
+    }
+
+    // Fisher-Yates shuffle of an index array
+    private static void shuffle(int[] order, Random random) {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+    }
+}
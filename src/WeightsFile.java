@@ -0,0 +1,123 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class WeightsFile {
+    public static final String DEFAULT_PATH = "weights/evaluation.bin"; // Tuned weights read by AI at startup
+    private static final int MAGIC = 0x52565757; // File signature ("RVWW")
+    private static final int VERSION = 2; // Format version, bumped when the layout changes (2: exact stable-disc stability)
+    private static final int OLD_STABILITY_VERSION = 1; // Same layout, but the weights fit the old stability factor
+
+    private static boolean startupLoaded; // Set once the startup weights have been looked for
+    private static WeightType startupWeights = AI.DEFAULT_WEIGHTS; // Weights for the expert level
+    private static PatternEvaluator startupPatterns; // Tables for the PATTERN level (null until loaded or seeded)
+
+    public final WeightType weights; // Weights for piece differential, mobility, corner and stability
+    public final PatternEvaluator patterns; // Pattern tables and mobility weights per phase
+
+    // Constructor to hold the contents of a weights file
+    public WeightsFile(WeightType weights, PatternEvaluator patterns) {
+        this.weights = weights;
+        this.patterns = patterns;
+    }
+
+    // Weights used by AIs created without explicit weights (tuned if the default file exists)
+    // The weights are fitted with all four factors together, so only the expert level, which uses all of them, takes them
+    public static synchronized WeightType startupWeights(AIDifficulty difficulty) {
+        if (difficulty != AIDifficulty.EXPERT) {
+            return AI.DEFAULT_WEIGHTS;
+        }
+        loadStartup();
+        return startupWeights;
+    }
+
+    // Pattern tables used by PATTERN AIs (tuned if the default file exists, seeded otherwise)
+    public static synchronized PatternEvaluator startupPatterns() {
+        loadStartup();
+        return startupPatterns != null ? startupPatterns : PatternEvaluator.getDefault();
+    }
+
+    // Read the default weights file once, keeping the built-in weights if it is missing or unreadable
+    private static void loadStartup() {
+        if (startupLoaded) {
+            return;
+        }
+        startupLoaded = true;
+        if (!new File(DEFAULT_PATH).isFile()) {
+            return;
+        }
+        try {
+            WeightsFile file = read(DEFAULT_PATH);
+            startupWeights = file.weights;
+            startupPatterns = file.patterns;
+        } catch (IOException e) {
+            e.printStackTrace(); // Fall back to the built-in weights
+        }
+    }
+
+    // Read a weights file
+    public static WeightsFile read(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a weights file: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION && version != OLD_STABILITY_VERSION) {
+                throw new IOException("Weights file has an unknown version: " + path);
+            }
+            WeightType weights = new WeightType(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            if (version == OLD_STABILITY_VERSION) { // The pattern tables do not use stability and are still valid
+                System.out.println("Weights in " + path + " were fitted to the old stability factor, using the built-in"
+                        + " weights instead (tune again to replace them)");
+                weights = AI.DEFAULT_WEIGHTS;
+            }
+            if (in.readInt() != PatternEvaluator.PHASES || in.readInt() != PatternEvaluator.PATTERNS.length) {
+                throw new IOException("Weights file has a different pattern layout: " + path);
+            }
+            int[][][] tables = new int[PatternEvaluator.PHASES][PatternEvaluator.PATTERNS.length][];
+            int[] mobilityWeights = new int[PatternEvaluator.PHASES];
+            for (int phase = 0; phase < PatternEvaluator.PHASES; phase++) {
+                mobilityWeights[phase] = in.readInt();
+                for (int pattern = 0; pattern < PatternEvaluator.PATTERNS.length; pattern++) {
+                    int[] table = new int[PatternEvaluator.tableSize(pattern)];
+                    for (int index = 0; index < table.length; index++) {
+                        table[index] = in.readInt();
+                    }
+                    tables[phase][pattern] = table;
+                }
+            }
+            return new WeightsFile(weights, new PatternEvaluator(tables, mobilityWeights));
+        }
+    }
+
+    // Write a weights file, creating its directory if needed
+    public void write(String path) throws IOException {
+        File parent = new File(path).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(weights.PieceDifferential);
+            out.writeInt(weights.Mobility);
+            out.writeInt(weights.Corner);
+            out.writeInt(weights.Stability);
+            out.writeInt(PatternEvaluator.PHASES);
+            out.writeInt(PatternEvaluator.PATTERNS.length);
+            for (int phase = 0; phase < PatternEvaluator.PHASES; phase++) {
+                out.writeInt(patterns.mobilityWeights[phase]);
+                for (int[] table : patterns.weights[phase]) {
+                    for (int value : table) {
+                        out.writeInt(value);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+import java.util.Random;
+
+public class Zobrist {
+    public static final long[] BLACK = new long[64]; // Random key for a black piece on each square
+    public static final long[] WHITE = new long[64]; // Random key for a white piece on each square
+    public static final long[] FLIP = new long[64]; // Key change when the piece on a square changes color
+    public static final long WHITE_TO_MOVE; // Key mixed in when it is white's turn
+
+    static {
+        Random random = new Random(20241222L); // Fixed seed so keys are stable between runs
+        for (int square = 0; square < 64; square++) {
+            BLACK[square] = random.nextLong();
+            WHITE[square] = random.nextLong();
+            FLIP[square] = BLACK[square] ^ WHITE[square];
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    // Compute the key of a position from scratch
+    public static long hash(long black, long white) {
+        long hash = 0;
+        for (long bits = black; bits != 0; bits &= bits - 1) {
+            hash ^= BLACK[Long.numberOfTrailingZeros(bits)];
+        }
+        for (long bits = white; bits != 0; bits &= bits - 1) {
+            hash ^= WHITE[Long.numberOfTrailingZeros(bits)];
+        }
+        return hash;
+    }
+
+    // Key of a position with the player to move mixed in
+    public static long key(long hash, boolean isBlackTurn) {
+        return isBlackTurn ? hash : hash ^ WHITE_TO_MOVE;
+    }
+}